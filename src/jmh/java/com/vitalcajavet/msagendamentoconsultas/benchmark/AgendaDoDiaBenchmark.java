@@ -0,0 +1,82 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho quente de {@link ConsultaService} sobre a agenda em memória: grade do dia com os horários livres
+ * (a antiga {@code gerarHorariosDoDia} mais o filtro de ocupados) e a checagem de conflito feita antes de agendar.
+ * Os horários consultados na checagem alternam entre ocupados e livres.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgendaDoDiaBenchmark {
+
+    private static final Long VETERINARIO_ID = 1L;
+
+    @Param({"10", "100", "500"})
+    public int consultasNoDia;
+
+    private ConsultaService consultaService;
+    private HorarioDisponivelRequestDTO requisicao;
+    private LocalDateTime[] horariosVerificados;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        AgendaEmMemoria agenda = new AgendaEmMemoria();
+        consultaService = agenda.consultaService;
+
+        LocalDate dia = LocalDate.now().plusDays(1);
+        Random random = new Random(42);
+        List<Consulta> consultas = agenda.preencherDia(VETERINARIO_ID, dia, consultasNoDia, random);
+        requisicao = new HorarioDisponivelRequestDTO(VETERINARIO_ID, dia);
+
+        horariosVerificados = new LocalDateTime[1024];
+        for (int i = 0; i < horariosVerificados.length; i++) {
+            horariosVerificados[i] = i % 2 == 0
+                    ? consultas.get(random.nextInt(consultas.size())).getDataHora()
+                    : dia.atTime(AgendaEmMemoria.INICIO, 0).plusMinutes(random.nextInt(
+                            (AgendaEmMemoria.FIM - AgendaEmMemoria.INICIO) * 60));
+        }
+    }
+
+    @Benchmark
+    public List<LocalDateTime> horariosLivres() {
+        return consultaService.calcularDisponibilidade(requisicao).grade().horariosLivres();
+    }
+
+    @Benchmark
+    public HorarioDisponivelResponseDTO respostaDeHorarios() {
+        return consultaService.listarHorariosDisponiveis(requisicao);
+    }
+
+    @Benchmark
+    public boolean verificarConflito() {
+        LocalDateTime horario = horariosVerificados[proximo++ & (horariosVerificados.length - 1)];
+        return consultaService.verificarDisponibilidade(VETERINARIO_ID, horario);
+    }
+}
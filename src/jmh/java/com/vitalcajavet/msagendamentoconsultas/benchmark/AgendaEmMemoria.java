@@ -0,0 +1,187 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AgendaCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.AgendamentoProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.AnimalServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.HorarioComercialProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.RetentativaProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.VeterinarioCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaRepository;
+import com.vitalcajavet.msagendamentoconsultas.repository.NomeVeterinario;
+import com.vitalcajavet.msagendamentoconsultas.repository.VeterinarioRepository;
+import com.vitalcajavet.msagendamentoconsultas.service.AgendaCache;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import com.vitalcajavet.msagendamentoconsultas.service.MetricasConsulta;
+import com.vitalcajavet.msagendamentoconsultas.service.NomesAnimais;
+import com.vitalcajavet.msagendamentoconsultas.service.NomesConsultas;
+import com.vitalcajavet.msagendamentoconsultas.service.RetentativaOtimista;
+import com.vitalcajavet.msagendamentoconsultas.service.TravasPorVeterinario;
+import com.vitalcajavet.msagendamentoconsultas.service.VeterinarioCache;
+import com.vitalcajavet.msagendamentoconsultas.service.VeterinarioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviços reais sobre repositórios em memória, sem Spring nem banco. Os repositórios são proxies que respondem
+ * apenas às consultas usadas nos benchmarks; a checagem de conflito usa um conjunto (veterinário, horário), como
+ * o índice único parcial do banco, para que o custo medido seja o do serviço e não o de uma busca linear.
+ */
+final class AgendaEmMemoria {
+
+    static final int INICIO = 8;
+    static final int FIM = 18;
+    static final int VETERINARIOS = 50;
+    static final int ANIMAIS = 2000;
+
+    private final Map<Long, Veterinario> veterinarios = new HashMap<>();
+    private final Map<Long, List<Consulta>> consultasPorVeterinario = new HashMap<>();
+    private final Set<String> horariosOcupados = new HashSet<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    final ConsultaService consultaService;
+    final NomesConsultas nomesConsultas;
+
+    AgendaEmMemoria() {
+        for (long id = 1; id <= VETERINARIOS; id++) {
+            Veterinario veterinario = new Veterinario();
+            veterinario.setId(id);
+            veterinario.setNome("Veterinário " + id);
+            veterinario.setAtivo(true);
+            veterinarios.put(id, veterinario);
+        }
+
+        ConsultaRepository consultaRepository = stub(ConsultaRepository.class, (nome, args) -> switch (nome) {
+            case "findHorariosOcupadosByVeterinarioIdAndData" -> horariosOcupados((Long) args[0],
+                    (LocalDateTime) args[1], (LocalDateTime) args[2]);
+            case "existsByVeterinarioIdAndDataHora" -> horariosOcupados.contains(chave((Long) args[0],
+                    (LocalDateTime) args[1]));
+            default -> throw new UnsupportedOperationException(nome);
+        });
+        VeterinarioRepository veterinarioRepository = stub(VeterinarioRepository.class, (nome, args) -> switch (nome) {
+            case "findById" -> Optional.ofNullable(veterinarios.get((Long) args[0]));
+            case "findNomesByIdIn" -> ((Collection<?>) args[0]).stream()
+                    .map(veterinarios::get)
+                    .map(v -> new NomeVeterinario(v.getId(), v.getNome()))
+                    .toList();
+            default -> throw new UnsupportedOperationException(nome);
+        });
+
+        PlatformTransactionManager semTransacao = new SemTransacao();
+        VeterinarioService veterinarioService = new VeterinarioService(veterinarioRepository,
+                new VeterinarioCache(new VeterinarioCacheProperties(), meterRegistry),
+                new RetentativaOtimista(new RetentativaProperties()), semTransacao);
+
+        HorarioComercialProperties horarioComercial = new HorarioComercialProperties();
+        horarioComercial.setInicio(INICIO);
+        horarioComercial.setFim(FIM);
+
+        consultaService = new ConsultaService(consultaRepository, null, veterinarioService, horarioComercial,
+                new TravasPorVeterinario(new AgendamentoProperties()),
+                new RetentativaOtimista(new RetentativaProperties()), semTransacao,
+                new AgendaCache(new AgendaCacheProperties(), consultaRepository, semTransacao, meterRegistry),
+                evento -> { }, new MetricasConsulta(meterRegistry));
+
+        nomesConsultas = new NomesConsultas(veterinarioService, new NomesAnimais(
+                ids -> ids.stream().collect(Collectors.toMap(id -> id, id -> "Animal " + id)),
+                new AnimalServiceProperties(), meterRegistry));
+    }
+
+    /**
+     * Preenche o dia do veterinário com {@code quantidade} consultas em minutos distintos do expediente, das
+     * quais uma em cada dez cancelada (não ocupa horário).
+     */
+    List<Consulta> preencherDia(Long veterinarioId, LocalDate dia, int quantidade, Random random) {
+        List<Consulta> doDia = consultasPorVeterinario.computeIfAbsent(veterinarioId, id -> new ArrayList<>());
+        Set<Integer> minutos = new HashSet<>();
+        while (minutos.size() < quantidade) {
+            minutos.add(random.nextInt((FIM - INICIO) * 60));
+        }
+
+        long proximoId = consultasPorVeterinario.values().stream().mapToLong(List::size).sum() + 1;
+        for (int minuto : minutos) {
+            Consulta consulta = consulta(proximoId++, veterinarioId, dia.atTime(INICIO, 0).plusMinutes(minuto), random);
+            if (consulta.getId() % 10 == 0) {
+                consulta.setStatus(StatusConsulta.CANCELADA);
+            } else {
+                horariosOcupados.add(chave(veterinarioId, consulta.getDataHora()));
+            }
+            doDia.add(consulta);
+        }
+        return doDia;
+    }
+
+    static Consulta consulta(long id, Long veterinarioId, LocalDateTime dataHora, Random random) {
+        Consulta consulta = new Consulta();
+        consulta.setId(id);
+        consulta.setAnimalId(1L + random.nextInt(ANIMAIS));
+        consulta.setVeterinarioId(veterinarioId);
+        consulta.setDataHora(dataHora);
+        consulta.setTipo(TipoConsulta.values()[random.nextInt(TipoConsulta.values().length)]);
+        consulta.setVersion(0L);
+        return consulta;
+    }
+
+    private List<LocalDateTime> horariosOcupados(Long veterinarioId, LocalDateTime inicio, LocalDateTime fim) {
+        return consultasPorVeterinario.getOrDefault(veterinarioId, List.of()).stream()
+                .filter(c -> c.getStatus() != StatusConsulta.CANCELADA)
+                .map(Consulta::getDataHora)
+                .filter(h -> !h.isBefore(inicio) && h.isBefore(fim))
+                .toList();
+    }
+
+    private static String chave(Long veterinarioId, LocalDateTime dataHora) {
+        return veterinarioId + "@" + dataHora;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> tipo, Resposta resposta) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) ->
+                switch (metodo.getName()) {
+                    case "toString" -> tipo.getSimpleName() + " em memória";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> resposta.responder(metodo.getName(), args);
+                });
+    }
+
+    private interface Resposta {
+        Object responder(String metodo, Object[] args);
+    }
+
+    private static final class SemTransacao implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
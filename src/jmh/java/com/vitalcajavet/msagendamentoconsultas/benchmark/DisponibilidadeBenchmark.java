@@ -0,0 +1,84 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.vitalcajavet.msagendamentoconsultas.service.GradeHorarios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grade de horários livres de um veterinário em um dia: a implementação antiga (lista de
+ * LocalDateTime por minuto filtrada com contains) contra a grade em bitset.
+ * Rode com {@code -Djmh.args="Disponibilidade -prof gc"} para ver a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisponibilidadeBenchmark {
+
+    private static final int INICIO = 8;
+    private static final int FIM = 18;
+
+    @Param({"10", "100"})
+    public int consultasNoDia;
+
+    private LocalDate data;
+    private LocalDateTime agora;
+    private List<LocalDateTime> ocupados;
+
+    @Setup
+    public void setup() {
+        data = LocalDate.now().plusDays(1);
+        agora = LocalDateTime.now();
+        ocupados = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < consultasNoDia; i++) {
+            ocupados.add(data.atTime(INICIO, 0).plusMinutes(random.nextInt((FIM - INICIO) * 60)));
+        }
+
+        if (!legado().equals(grade())) {
+            throw new IllegalStateException("Grade em bitset diverge da implementação antiga");
+        }
+    }
+
+    @Benchmark
+    public List<LocalDateTime> legado() {
+        List<LocalDateTime> todos = new ArrayList<>();
+        LocalDateTime horario = data.atTime(INICIO, 0);
+        LocalDateTime fim = data.atTime(FIM, 0);
+        while (horario.isBefore(fim)) {
+            todos.add(horario);
+            horario = horario.plusMinutes(1);
+        }
+
+        return todos.stream()
+                .filter(h -> !ocupados.contains(h))
+                .filter(h -> !h.isBefore(LocalDateTime.now()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<LocalDateTime> grade() {
+        GradeHorarios grade = GradeHorarios.doDia(data, INICIO, FIM);
+        ocupados.forEach(grade::marcarOcupado);
+        grade.bloquearAntesDe(agora);
+        return grade.horariosLivres();
+    }
+}
@@ -0,0 +1,80 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.security.AuthServiceGuard;
+import com.vitalcajavet.msagendamentoconsultas.security.JwtService;
+import com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifier;
+import com.vitalcajavet.msagendamentoconsultas.security.TokenValidationCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do usuário do payload do JWT, feita a cada requisição autenticada para o log e o contexto de segurança.
+ * Não valida a assinatura nem chama o auth-service: mede só a decodificação e o parse do payload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtracaoUsuarioBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private String tokenMalformado;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("RSA");
+        gerador.initialize(2048);
+
+        token = "Bearer " + Jwts.builder()
+                .setSubject("benchmark")
+                .claim("username", "recepcao.benchmark")
+                .claim("roles", List.of("RECEPCAO", "VETERINARIO"))
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(gerador.generateKeyPair().getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+        tokenMalformado = "Bearer " + token.substring(7, token.lastIndexOf('.'));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthServiceProperties authServiceProperties = new AuthServiceProperties();
+        JwtVerificationProperties jwtProperties = new JwtVerificationProperties();
+        jwtService = new JwtService(WebClient.builder().build(),
+                new TokenValidationCache(new TokenCacheProperties(), meterRegistry),
+                new LocalJwtVerifier(jwtProperties), jwtProperties,
+                new AuthServiceGuard(authServiceProperties, meterRegistry), authServiceProperties);
+    }
+
+    @Benchmark
+    public String extrairUsuario() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extrairUsuarioDeTokenMalformado() {
+        return jwtService.extractUsername(tokenMalformado);
+    }
+}
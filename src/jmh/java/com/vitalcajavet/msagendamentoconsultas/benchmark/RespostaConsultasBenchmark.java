@@ -0,0 +1,92 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.service.NomesConsultas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem das respostas de listas grandes de consultas: a conversão de entidade em DTO feita por
+ * {@code ConsultaController.convertToResponseDTO}, o preenchimento dos nomes em lote e a serialização com o
+ * {@link ObjectMapper} configurado como o do Spring Boot. Os nomes de animais ficam no cache de
+ * {@code NomesAnimais} depois do aquecimento, como em produção.
+ * Rode com {@code -Djmh.args="RespostaConsultas -prof gc"} para ver a alocação por lista.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RespostaConsultasBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int consultas;
+
+    private List<Consulta> entidades;
+    private List<ConsultaResponseDTO> respostas;
+    private NomesConsultas nomesConsultas;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        nomesConsultas = new AgendaEmMemoria().nomesConsultas;
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Random random = new Random(42);
+        LocalDate inicio = LocalDate.now().plusDays(1);
+        entidades = new ArrayList<>(consultas);
+        for (int i = 0; i < consultas; i++) {
+            entidades.add(AgendaEmMemoria.consulta(i + 1, 1L + random.nextInt(AgendaEmMemoria.VETERINARIOS),
+                    inicio.plusDays(i / 500).atTime(AgendaEmMemoria.INICIO, 0).plusMinutes(i % 500), random));
+        }
+        respostas = comNomes();
+    }
+
+    @Benchmark
+    public List<ConsultaResponseDTO> converter() {
+        List<ConsultaResponseDTO> convertidas = new ArrayList<>(entidades.size());
+        for (Consulta consulta : entidades) {
+            convertidas.add(new ConsultaResponseDTO(consulta.getId(), consulta.getAnimalId(),
+                    consulta.getVeterinarioId(), consulta.getDataHora(), consulta.getTipo(), consulta.getStatus(),
+                    consulta.getCreatedAt(), consulta.getUpdatedAt()));
+        }
+        return convertidas;
+    }
+
+    @Benchmark
+    public List<ConsultaResponseDTO> comNomes() {
+        List<ConsultaResponseDTO> convertidas = converter();
+        nomesConsultas.preencher(convertidas);
+        return convertidas;
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respostas);
+    }
+
+    @Benchmark
+    public byte[] respostaCompleta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(comNomes());
+    }
+}
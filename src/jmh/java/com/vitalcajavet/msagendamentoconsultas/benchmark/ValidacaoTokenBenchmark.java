@@ -0,0 +1,106 @@
+package com.vitalcajavet.msagendamentoconsultas.benchmark;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.security.AuthServiceGuard;
+import com.vitalcajavet.msagendamentoconsultas.security.AuthServiceStub;
+import com.vitalcajavet.msagendamentoconsultas.security.JwtService;
+import com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifier;
+import com.vitalcajavet.msagendamentoconsultas.security.TokenValidationCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a validação remota (GET /profile/me/ em um stub local) com a verificação local
+ * da assinatura. O cache de tokens fica desligado para medir o custo real de cada modo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidacaoTokenBenchmark {
+
+    @Param({"0", "5"})
+    public int latenciaStubMs;
+
+    private AuthServiceStub stub;
+    private JwtService remoto;
+    private JwtService local;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("RSA");
+        gerador.initialize(2048);
+        KeyPair chaves = gerador.generateKeyPair();
+
+        token = "Bearer " + Jwts.builder()
+                .setSubject("benchmark")
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(chaves.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+
+        stub = new AuthServiceStub();
+        stub.setLatencia(Duration.ofMillis(latenciaStubMs));
+        WebClient webClient = WebClient.builder().baseUrl(stub.url()).build();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenCacheProperties semCache = new TokenCacheProperties();
+        semCache.setEnabled(false);
+        TokenValidationCache cache = new TokenValidationCache(semCache, meterRegistry);
+        AuthServiceProperties authServiceProperties = new AuthServiceProperties();
+        AuthServiceGuard guard = new AuthServiceGuard(authServiceProperties, meterRegistry);
+
+        JwtVerificationProperties remotoProperties = new JwtVerificationProperties();
+        remoto = new JwtService(webClient, cache, new LocalJwtVerifier(remotoProperties), remotoProperties,
+                guard, authServiceProperties);
+
+        JwtVerificationProperties localProperties = new JwtVerificationProperties();
+        localProperties.setMode(JwtVerificationProperties.Mode.LOCAL);
+        localProperties.setPublicKey("-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(chaves.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----");
+        local = new JwtService(webClient, cache, new LocalJwtVerifier(localProperties), localProperties,
+                guard, authServiceProperties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.close();
+    }
+
+    @Benchmark
+    public boolean validacaoRemota() {
+        return remoto.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validacaoLocal() {
+        return local.validateToken(token);
+    }
+}
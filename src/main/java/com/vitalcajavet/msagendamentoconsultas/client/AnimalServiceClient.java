@@ -0,0 +1,13 @@
+package com.vitalcajavet.msagendamentoconsultas.client;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Busca nomes de animais no serviço de cadastro. Uma chamada recebe todos os ids de uma página; ids
+ * desconhecidos simplesmente não aparecem no resultado. Falhas e timeouts saem como exceção.
+ */
+public interface AnimalServiceClient {
+
+    Map<Long, String> buscarNomes(Collection<Long> ids);
+}
@@ -0,0 +1,49 @@
+package com.vitalcajavet.msagendamentoconsultas.client;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code GET /animais?ids=1,2,3}, respondendo {@code [{"id": 1, "nome": "Rex"}, ...]}.
+ */
+public class HttpAnimalServiceClient implements AnimalServiceClient {
+
+    private static final ParameterizedTypeReference<List<AnimalNome>> LISTA_DE_ANIMAIS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public HttpAnimalServiceClient(WebClient webClient, Duration timeout) {
+        this.webClient = webClient;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Map<Long, String> buscarNomes(Collection<Long> ids) {
+        String parametro = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        List<AnimalNome> animais = webClient.get()
+                .uri(uri -> uri.path("/animais").queryParam("ids", parametro).build())
+                .retrieve()
+                .bodyToMono(LISTA_DE_ANIMAIS)
+                .block(timeout);
+
+        if (animais == null) {
+            return Map.of();
+        }
+        return animais.stream()
+                .filter(animal -> animal.id() != null && animal.nome() != null)
+                .collect(Collectors.toMap(AnimalNome::id, AnimalNome::nome, (primeiro, segundo) -> primeiro));
+    }
+
+    public record AnimalNome(Long id, String nome) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.agenda")
+public class AgendaCacheProperties {
+    private boolean enabled = true;
+    private int dias = 7;
+    private long maximoConsultas = 20_000;
+    private Duration ttl = Duration.ofMinutes(5);
+}
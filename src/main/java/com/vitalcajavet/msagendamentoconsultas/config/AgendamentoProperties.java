@@ -0,0 +1,15 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.agendamento")
+public class AgendamentoProperties {
+    private int faixasDeTrava = 64;
+    private Duration esperaTrava = Duration.ofSeconds(5);
+}
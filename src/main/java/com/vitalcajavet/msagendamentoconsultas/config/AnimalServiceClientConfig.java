@@ -0,0 +1,38 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import com.vitalcajavet.msagendamentoconsultas.client.AnimalServiceClient;
+import com.vitalcajavet.msagendamentoconsultas.client.HttpAnimalServiceClient;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.Map;
+
+@Configuration
+public class AnimalServiceClientConfig {
+
+    // Sem animal.service.url as respostas ficam com os nomes provisórios ("Animal #id").
+    @Bean
+    @ConditionalOnMissingBean
+    public AnimalServiceClient animalServiceClient(WebClient.Builder builder, AnimalServiceProperties properties) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            return ids -> Map.of();
+        }
+
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getTimeout().toMillis())
+                .responseTimeout(properties.getTimeout());
+
+        WebClient webClient = builder
+                .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        return new HttpAnimalServiceClient(webClient, properties.getTimeout());
+    }
+}
@@ -0,0 +1,26 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "animal.service")
+public class AnimalServiceProperties {
+
+    private String url;
+    private Duration timeout = Duration.ofMillis(500);
+    private int maxIdsPorChamada = 500;
+    private Duration pausaAposFalha = Duration.ofSeconds(10);
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+        private long maximumSize = 20_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration ttlDesconhecidos = Duration.ofMinutes(1);
+    }
+}
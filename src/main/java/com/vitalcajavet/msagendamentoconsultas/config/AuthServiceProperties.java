@@ -0,0 +1,30 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.service")
+public class AuthServiceProperties {
+
+    private String url;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    private int maxConcurrentCalls = 50;
+    private Duration maxWaitForPermit = Duration.ofMillis(100);
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    public Duration totalTimeout() {
+        return connectTimeout.plus(readTimeout);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
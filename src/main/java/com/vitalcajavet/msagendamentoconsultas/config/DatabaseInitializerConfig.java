@@ -1,13 +1,19 @@
 package com.vitalcajavet.msagendamentoconsultas.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
-import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
@@ -28,24 +34,70 @@ public class DatabaseInitializerConfig {
     private static final int DEFAULT_PORT = 5432;
 
     private final DataSourceProperties properties;
+    private final ReplicaLeituraProperties replicaProperties;
+    private final Environment environment;
 
-    public DatabaseInitializerConfig(DataSourceProperties properties) {
+    public DatabaseInitializerConfig(DataSourceProperties properties,
+                                     ReplicaLeituraProperties replicaProperties,
+                                     Environment environment) {
         this.properties = properties;
+        this.replicaProperties = replicaProperties;
+        this.environment = environment;
     }
 
     @Bean
     @Primary
-    @ConfigurationProperties("spring.datasource.hikari")
-    public DataSource dataSource() {
+    public DataSource dataSource(MeterRegistry meterRegistry) {
         String url = properties.determineUrl();
         String username = properties.determineUsername();
         String password = properties.determinePassword();
 
         ensurePostgresDatabaseExists(url, username, password);
 
-        return properties.initializeDataSourceBuilder()
+        HikariDataSource primario = properties.initializeDataSourceBuilder()
                 .type(HikariDataSource.class)
                 .build();
+        configurarPool(primario, "spring.datasource.hikari", url);
+
+        MicrometerMetricsTrackerFactory metricas = new MicrometerMetricsTrackerFactory(meterRegistry);
+        monitorarPool(primario, "primario", metricas);
+
+        if (!replicaProperties.isEnabled()) {
+            return primario;
+        }
+
+        String urlReplica = StringUtils.hasText(replicaProperties.getUrl()) ? replicaProperties.getUrl() : url;
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(urlReplica)
+                .username(StringUtils.hasText(replicaProperties.getUsername()) ? replicaProperties.getUsername() : username)
+                .password(replicaProperties.getPassword() != null ? replicaProperties.getPassword() : password)
+                .build();
+        configurarPool(replica, "app.datasource.replica.hikari", urlReplica);
+        monitorarPool(replica, "replica", metricas);
+
+        logger.info("Read-only transactions routed to replica at '{}'.", urlReplica);
+
+        RoteamentoLeituraDataSource roteamento = new RoteamentoLeituraDataSource(primario, replica, meterRegistry);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    // hikaricp.connections.{active,idle,pending,max,usage,...} com a tag pool
+    private static void monitorarPool(HikariDataSource dataSource, String nome, MicrometerMetricsTrackerFactory metricas) {
+        if (!StringUtils.hasText(dataSource.getPoolName())) {
+            dataSource.setPoolName(nome);
+        }
+        dataSource.setMetricsTrackerFactory(metricas);
+    }
+
+    private void configurarPool(HikariDataSource dataSource, String prefixo, String url) {
+        Binder.get(environment).bind(prefixo, Bindable.ofInstance(dataSource));
+
+        if (StringUtils.hasText(url) && url.startsWith(POSTGRES_JDBC_PREFIX)) {
+            dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+        }
     }
 
     private void ensurePostgresDatabaseExists(String url, String username, String password) {
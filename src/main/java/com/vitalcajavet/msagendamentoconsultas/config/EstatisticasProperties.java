@@ -0,0 +1,16 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.estatisticas")
+public class EstatisticasProperties {
+    private Duration cacheTtl = Duration.ofSeconds(30);
+    private long cacheMaximumSize = 1_000;
+    private Duration periodoMaximo = Duration.ofDays(366);
+}
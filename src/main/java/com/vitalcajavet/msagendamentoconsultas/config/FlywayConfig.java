@@ -0,0 +1,18 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    // Bancos criados antes das migrações (pelo ddl-auto do Hibernate) recebem baseline na versão 0,
+    // então todas as migrações rodam e, por usarem IF NOT EXISTS, convivem com o schema existente.
+    @Bean
+    public FlywayConfigurationCustomizer baselineBancosExistentes() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("0");
+    }
+}
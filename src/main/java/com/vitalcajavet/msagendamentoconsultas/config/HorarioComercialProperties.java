@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "app.horario-comercial")
@@ -11,4 +14,13 @@ public class HorarioComercialProperties {
     private int inicio;
     private int fim;
     private int horasMinimasCancelamento;
+
+    public boolean dentroDoExpediente(LocalDateTime dataHora) {
+        LocalTime horario = dataHora.toLocalTime();
+        return !horario.isBefore(LocalTime.of(inicio, 0)) && !horario.isAfter(LocalTime.of(fim, 0));
+    }
+
+    public String descricaoExpediente() {
+        return "Horário fora do expediente comercial (" + inicio + ":00 às " + fim + ":00)";
+    }
 }
@@ -0,0 +1,25 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.jwt")
+public class JwtVerificationProperties {
+
+    private Mode mode = Mode.REMOTE;
+    private String publicKey;
+    private Resource jwksFile;
+    private boolean remoteFallback = false;
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    public enum Mode {
+        REMOTE,
+        LOCAL
+    }
+}
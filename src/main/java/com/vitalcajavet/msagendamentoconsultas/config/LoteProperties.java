@@ -0,0 +1,13 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.lote")
+public class LoteProperties {
+    private int tamanhoMaximo = 1000;
+    private int jdbcBatchSize = 50;
+}
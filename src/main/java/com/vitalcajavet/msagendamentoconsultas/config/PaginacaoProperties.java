@@ -0,0 +1,20 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.paginacao")
+public class PaginacaoProperties {
+    private int tamanhoPadrao = 50;
+    private int tamanhoMaximo = 500;
+
+    public int limiteEfetivo(Integer solicitado) {
+        if (solicitado == null || solicitado <= 0) {
+            return tamanhoPadrao;
+        }
+        return Math.min(solicitado, tamanhoMaximo);
+    }
+}
@@ -0,0 +1,18 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenciaEmLoteConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenciaEmLote(LoteProperties loteProperties) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", loteProperties.getJdbcBatchSize());
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
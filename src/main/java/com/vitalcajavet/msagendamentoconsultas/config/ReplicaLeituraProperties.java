@@ -0,0 +1,15 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaLeituraProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+}
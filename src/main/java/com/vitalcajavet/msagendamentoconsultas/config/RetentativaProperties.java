@@ -0,0 +1,16 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.retentativa")
+public class RetentativaProperties {
+    private int maxTentativas = 4;
+    private Duration atrasoInicial = Duration.ofMillis(10);
+    private Duration atrasoMaximo = Duration.ofMillis(200);
+}
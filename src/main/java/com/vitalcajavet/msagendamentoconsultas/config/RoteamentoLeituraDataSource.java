@@ -0,0 +1,47 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envia transações somente leitura para a réplica e todo o resto para o primário. Precisa ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a conexão só é obtida no primeiro
+ * comando, quando a transação já marcou se é somente leitura.
+ */
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    private final Counter primario;
+    private final Counter replica;
+
+    public RoteamentoLeituraDataSource(DataSource primario, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        this.primario = contador(meterRegistry, Destino.PRIMARIO);
+        this.replica = contador(meterRegistry, Destino.REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replica.increment();
+            return Destino.REPLICA;
+        }
+        primario.increment();
+        return Destino.PRIMARIO;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, Destino destino) {
+        return Counter.builder("datasource.roteamento")
+                .description("Conexões entregues pelo roteamento de leitura, por destino")
+                .tag("destino", destino.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
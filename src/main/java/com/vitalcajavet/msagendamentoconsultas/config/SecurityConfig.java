@@ -32,7 +32,8 @@ public class SecurityConfig {
                                 "/api/v1/docs/apispec_1.json/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
-                                "/api/v1/health"
+                                "/api/v1/health",
+                                "/actuator/prometheus"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
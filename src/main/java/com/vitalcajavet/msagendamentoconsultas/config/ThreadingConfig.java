@@ -0,0 +1,37 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private final Environment environment;
+
+    public ThreadingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (virtual) {
+            logger.info("Requisições, @Async e @Scheduled executando em virtual threads");
+            if (System.getProperty("jdk.tracePinnedThreads") == null) {
+                logger.info("Use -Djdk.tracePinnedThreads=short para rastrear virtual threads presas a blocos synchronized");
+            }
+        } else {
+            logger.info("Requisições executando em threads de plataforma (spring.threads.virtual.enabled=false)");
+        }
+    }
+}
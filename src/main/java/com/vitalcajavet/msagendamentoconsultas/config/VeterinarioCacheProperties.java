@@ -0,0 +1,16 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.veterinarios")
+public class VeterinarioCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 5_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
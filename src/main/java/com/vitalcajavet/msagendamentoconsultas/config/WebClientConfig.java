@@ -1,20 +1,30 @@
 package com.vitalcajavet.msagendamentoconsultas.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
 
-    @Value("${auth.service.url}")
-    private String authServiceUrl;
-
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
+    public WebClient webClient(WebClient.Builder builder, AuthServiceProperties authServiceProperties) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("auth-service")
+                .maxConnections(authServiceProperties.getMaxConcurrentCalls())
+                .pendingAcquireTimeout(authServiceProperties.getConnectTimeout())
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) authServiceProperties.getConnectTimeout().toMillis())
+                .responseTimeout(authServiceProperties.getReadTimeout());
+
         return builder
-                .baseUrl(authServiceUrl)
+                .baseUrl(authServiceProperties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 }
\ No newline at end of file
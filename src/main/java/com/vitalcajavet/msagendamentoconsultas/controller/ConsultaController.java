@@ -1,21 +1,47 @@
 package com.vitalcajavet.msagendamentoconsultas.controller;
 
+import com.vitalcajavet.msagendamentoconsultas.config.PaginacaoProperties;
 import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
 import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.dto.FormatoExportacao;
+import com.vitalcajavet.msagendamentoconsultas.dto.FormatoHorarios;
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioBitmapResponseDTO;
 import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelRequestDTO;
 import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioIntervalosResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.IntervalosHorario;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.Pagina;
 import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.VersaoConsulta;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaExportacaoService;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaLoteService;
 import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import com.vitalcajavet.msagendamentoconsultas.service.DisponibilidadeDoDia;
+import com.vitalcajavet.msagendamentoconsultas.service.GradeHorarios;
+import com.vitalcajavet.msagendamentoconsultas.service.NomesConsultas;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,26 +51,53 @@ import java.util.stream.Collectors;
 public class ConsultaController {
 
     private final ConsultaService consultaService;
+    private final ConsultaLoteService consultaLoteService;
+    private final ConsultaExportacaoService exportacaoService;
+    private final PaginacaoProperties paginacaoProperties;
+    private final NomesConsultas nomesConsultas;
 
-    public ConsultaController(ConsultaService consultaService) {
+    public ConsultaController(ConsultaService consultaService,
+                              ConsultaLoteService consultaLoteService,
+                              ConsultaExportacaoService exportacaoService,
+                              PaginacaoProperties paginacaoProperties,
+                              NomesConsultas nomesConsultas) {
         this.consultaService = consultaService;
+        this.consultaLoteService = consultaLoteService;
+        this.exportacaoService = exportacaoService;
+        this.paginacaoProperties = paginacaoProperties;
+        this.nomesConsultas = nomesConsultas;
     }
 
     @GetMapping
     @Operation(summary = "Listar todas as consultas")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarTodas() {
-        List<Consulta> consultas = consultaService.listarTodasConsultas();
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarTodas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarTodasConsultas(
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar consulta por ID")
-    public ResponseEntity<ConsultaResponseDTO> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<ConsultaResponseDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Optional<VersaoConsulta> versao = consultaService.versaoDaConsulta(id);
+        if (versao.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        VersaoConsulta v = versao.get();
+        String etag = etagDaConsulta(id, v.versao(), v.versaoVeterinario(), v.updatedAt(), v.animalId());
+        if (request.checkNotModified(etag)) {
+            return RespostaCondicional.naoModificado(etag);
+        }
+        // O corpo pode ser mais novo que a versão lida acima, então a ETag enviada é a dele. A versão do
+        // veterinário nunca é mais nova que o nome no corpo: no pior caso a próxima leitura recebe 200 de novo.
         return consultaService.buscarPorId(id)
-                .map(consulta -> ResponseEntity.ok(convertToResponseDTO(consulta)))
+                .map(consulta -> {
+                    comNomes(consulta);
+                    return RespostaCondicional.ok(etagDaConsulta(id, consulta.getVersion(), v.versaoVeterinario(),
+                            consulta.getUpdatedAt(), consulta.getAnimalId()), consulta);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -60,8 +113,19 @@ public class ConsultaController {
         }
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Agendar consultas em lote",
+            description = "TUDO_OU_NADA grava o lote apenas se todos os itens forem válidos; MELHOR_ESFORCO grava os "
+                    + "válidos. Cada item volta com seu status (201, 400, 404, 409 ou 424 quando o lote foi cancelado)")
+    public ResponseEntity<LoteConsultasResponseDTO> agendarLote(@Valid @RequestBody LoteConsultasRequestDTO requestDTO) {
+        LoteConsultasResponseDTO responseDTO = consultaLoteService.agendarLote(requestDTO);
+        HttpStatus status = responseDTO.getAgendadas() > 0 ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(responseDTO);
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar consulta")
+    @Operation(summary = "Atualizar consulta",
+            description = "Envie em version a versão lida: se a consulta mudou desde então, a resposta é 409")
     public ResponseEntity<ConsultaResponseDTO> atualizar(@PathVariable Long id, @Valid @RequestBody ConsultaRequestDTO requestDTO) {
         try {
             Consulta consulta = consultaService.atualizarConsulta(id, requestDTO);
@@ -85,75 +149,97 @@ public class ConsultaController {
     }
 
     @PostMapping("/horarios-disponiveis")
-    @Operation(summary = "Listar horários disponíveis")
-    public ResponseEntity<HorarioDisponivelResponseDTO> listarHorariosDisponiveis(
-            @Valid @RequestBody HorarioDisponivelRequestDTO requestDTO) {
-        try {
+    @Operation(summary = "Listar horários disponíveis",
+            description = "Formato padrão: lista de minutos livres. Use formato=intervalos|bitmap ou o Accept "
+                    + "application/vnd.vitalcajavet.horarios-intervalos+json / horarios-bitmap+json para a versão compacta")
+    public ResponseEntity<?> listarHorariosDisponiveis(
+            @Valid @RequestBody HorarioDisponivelRequestDTO requestDTO,
+            @RequestParam(required = false) String formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoHorarios formatoResposta = FormatoHorarios.resolver(formato, accept);
+
+        if (formatoResposta == FormatoHorarios.LISTA) {
             HorarioDisponivelResponseDTO response = consultaService.listarHorariosDisponiveis(requestDTO);
             return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            throw e;
         }
+
+        DisponibilidadeDoDia disponibilidade = consultaService.calcularDisponibilidade(requestDTO);
+        Object body = formatoResposta == FormatoHorarios.INTERVALOS
+                ? convertToIntervalosDTO(disponibilidade)
+                : convertToBitmapDTO(disponibilidade);
+
+        return ResponseEntity.ok()
+                .contentType(StringUtils.hasText(formato) ? FormatoHorarios.LISTA.getMediaType() : formatoResposta.getMediaType())
+                .body(body);
     }
 
     @GetMapping("/veterinario/{veterinarioId}")
     @Operation(summary = "Listar consultas por veterinário")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarPorVeterinario(@PathVariable Long veterinarioId) {
-        List<Consulta> consultas = consultaService.listarConsultasPorVeterinario(veterinarioId);
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarPorVeterinario(
+            @PathVariable Long veterinarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasPorVeterinario(veterinarioId,
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/animal/{animalId}")
     @Operation(summary = "Listar consultas por animal")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarPorAnimal(@PathVariable Long animalId) {
-        List<Consulta> consultas = consultaService.listarConsultasPorAnimal(animalId);
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarPorAnimal(
+            @PathVariable Long animalId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasPorAnimal(animalId,
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Listar consultas por status")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarPorStatus(@PathVariable StatusConsulta status) {
-        List<Consulta> consultas = consultaService.listarConsultasPorStatus(status);
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarPorStatus(
+            @PathVariable StatusConsulta status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasPorStatus(status,
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/tipo/{tipo}")
     @Operation(summary = "Listar consultas por tipo")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarPorTipo(@PathVariable TipoConsulta tipo) {
-        List<Consulta> consultas = consultaService.listarConsultasPorTipo(tipo);
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarPorTipo(
+            @PathVariable TipoConsulta tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasPorTipo(tipo,
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/futuras")
     @Operation(summary = "Listar consultas futuras")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarFuturas() {
-        List<Consulta> consultas = consultaService.listarConsultasFuturas();
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarFuturas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasFuturas(
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
     }
 
     @GetMapping("/hoje")
     @Operation(summary = "Listar consultas de hoje")
-    public ResponseEntity<List<ConsultaResponseDTO>> listarDeHoje() {
-        List<Consulta> consultas = consultaService.listarConsultasDeHoje();
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+    public ResponseEntity<List<ConsultaResponseDTO>> listarDeHoje(WebRequest request) {
+        List<ConsultaResponseDTO> consultas = consultaService.listarConsultasDeHoje();
+        long versaoVeterinarios = nomesConsultas.versaoDosVeterinarios(
+                consultas.stream().map(ConsultaResponseDTO::getVeterinarioId).collect(Collectors.toSet()));
+
+        String etag = etagDeHoje(consultas, versaoVeterinarios);
+        if (request.checkNotModified(etag)) {
+            return RespostaCondicional.naoModificado(etag);
+        }
+        nomesConsultas.preencher(consultas);
+        return RespostaCondicional.ok(etagDeHoje(consultas, versaoVeterinarios), consultas);
     }
 
     @PatchMapping("/{id}/status")
@@ -178,30 +264,90 @@ public class ConsultaController {
     }
 
     @GetMapping("/periodo")
-    @Operation(summary = "Listar consultas por período")
+    @Operation(summary = "Listar consultas por período", description = "O período é [inicio, fim)")
     public ResponseEntity<List<ConsultaResponseDTO>> listarPorPeriodo(
-            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim) {
-        List<Consulta> consultas = consultaService.listarConsultasPorPeriodo(inicio, fim);
-        List<ConsultaResponseDTO> responseDTOs = consultas.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDTOs);
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<ConsultaResponseDTO> consultas = consultaService.listarConsultasPorPeriodo(inicio, fim,
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return comNomes(consultas);
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar consultas de um período",
+            description = "Streaming em NDJSON (padrão) ou CSV, ordenado por data/hora. O período é [inicio, fim)")
+    public void exportar(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) StatusConsulta status,
+            @RequestParam(required = false) String formato,
+            HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.resolver(formato);
+        exportacaoService.validarPeriodo(inicio, fim);
+
+        response.setContentType(formatoExportacao.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("consultas." + formatoExportacao.getExtensao())
+                .build()
+                .toString());
+
+        exportacaoService.exportar(inicio, fim, status, formatoExportacao, response.getOutputStream());
+    }
+
+    // Só o cache de nomes de animais entra na ETag: decidir um 304 nunca espera pelo serviço de animais. Uma
+    // resposta com nome provisório troca de ETag quando o nome chega ao cache.
+    private String etagDaConsulta(Long id, Long versao, Long versaoVeterinario, LocalDateTime updatedAt,
+                                  Long animalId) {
+        String nomeAnimal = nomesConsultas.animaisEmCache(List.of(animalId)).get(animalId);
+        return RespostaCondicional.etag("consulta", id, versao, versaoVeterinario, updatedAt,
+                nomeAnimal != null ? Integer.toHexString(nomeAnimal.hashCode()) : "provisorio");
+    }
+
+    private String etagDeHoje(List<ConsultaResponseDTO> consultas, long versaoVeterinarios) {
+        Map<Long, String> animais = nomesConsultas.animaisEmCache(
+                consultas.stream().map(ConsultaResponseDTO::getAnimalId).collect(Collectors.toSet()));
+        return RespostaCondicional.etag("hoje", versaoVeterinarios, RespostaCondicional.resumo(consultas,
+                c -> Arrays.asList(c.getId(), c.getAnimalId(), c.getVeterinarioId(), c.getDataHora(), c.getTipo(),
+                        c.getStatus(), c.getUpdatedAt(), c.getVersion(), animais.get(c.getAnimalId()))));
     }
 
     private ConsultaResponseDTO convertToResponseDTO(Consulta consulta) {
-        ConsultaResponseDTO responseDTO = new ConsultaResponseDTO();
-        responseDTO.setId(consulta.getId());
-        responseDTO.setAnimalId(consulta.getAnimalId());
-        responseDTO.setVeterinarioId(consulta.getVeterinarioId());
-        responseDTO.setDataHora(consulta.getDataHora());
-        responseDTO.setTipo(consulta.getTipo());
-        responseDTO.setStatus(consulta.getStatus());
-        responseDTO.setCreatedAt(consulta.getCreatedAt());
-        responseDTO.setUpdatedAt(consulta.getUpdatedAt());
-
-        responseDTO.setNomeAnimal("Animal #" + consulta.getAnimalId());
-        responseDTO.setNomeVeterinario("Veterinário #" + consulta.getVeterinarioId());
-
-        return responseDTO;
+        ConsultaResponseDTO responseDTO = new ConsultaResponseDTO(consulta.getId(), consulta.getAnimalId(),
+                consulta.getVeterinarioId(), consulta.getDataHora(), consulta.getTipo(), consulta.getStatus(),
+                consulta.getCreatedAt(), consulta.getUpdatedAt(), consulta.getVersion());
+        return comNomes(responseDTO);
+    }
+
+    private ConsultaResponseDTO comNomes(ConsultaResponseDTO consulta) {
+        nomesConsultas.preencher(List.of(consulta));
+        return consulta;
+    }
+
+    private ResponseEntity<List<ConsultaResponseDTO>> comNomes(Pagina<ConsultaResponseDTO> consultas) {
+        nomesConsultas.preencher(consultas.itens());
+        return RespostaPaginada.ok(consultas);
+    }
+
+    private HorarioIntervalosResponseDTO convertToIntervalosDTO(DisponibilidadeDoDia disponibilidade) {
+        GradeHorarios grade = disponibilidade.grade();
+        return new HorarioIntervalosResponseDTO(
+                disponibilidade.veterinarioId(),
+                disponibilidade.nomeVeterinario(),
+                disponibilidade.data(),
+                new IntervalosHorario(grade.getOrigem(), grade.livres()),
+                new IntervalosHorario(grade.getOrigem(), grade.ocupados()));
+    }
+
+    private HorarioBitmapResponseDTO convertToBitmapDTO(DisponibilidadeDoDia disponibilidade) {
+        GradeHorarios grade = disponibilidade.grade();
+        Base64.Encoder base64 = Base64.getEncoder();
+        return new HorarioBitmapResponseDTO(
+                disponibilidade.veterinarioId(),
+                disponibilidade.nomeVeterinario(),
+                grade.getOrigem(),
+                1,
+                grade.getTotalMinutos(),
+                base64.encodeToString(grade.livres().toByteArray()),
+                base64.encodeToString(grade.ocupados().toByteArray()));
     }
 }
\ No newline at end of file
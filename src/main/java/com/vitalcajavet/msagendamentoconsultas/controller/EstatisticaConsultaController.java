@@ -0,0 +1,67 @@
+package com.vitalcajavet.msagendamentoconsultas.controller;
+
+import com.vitalcajavet.msagendamentoconsultas.config.PaginacaoProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.AgrupamentoTemporal;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemPeriodoDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemVeterinarioDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.service.EstatisticaConsultaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/consultas/estatisticas")
+@CrossOrigin(origins = "*")
+@Tag(name = "Estatísticas", description = "Contagens de consultas agregadas no banco")
+public class EstatisticaConsultaController {
+
+    private final EstatisticaConsultaService estatisticaService;
+    private final PaginacaoProperties paginacaoProperties;
+
+    public EstatisticaConsultaController(EstatisticaConsultaService estatisticaService,
+                                         PaginacaoProperties paginacaoProperties) {
+        this.estatisticaService = estatisticaService;
+        this.paginacaoProperties = paginacaoProperties;
+    }
+
+    @GetMapping("/status")
+    @Operation(summary = "Consultas por status", description = "Período [inicio, fim); todos os status aparecem, mesmo com zero")
+    public ResponseEntity<List<ContagemDTO>> porStatus(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim) {
+        return ResponseEntity.ok(estatisticaService.contarPorStatus(inicio, fim));
+    }
+
+    @GetMapping("/tipo")
+    @Operation(summary = "Consultas por tipo")
+    public ResponseEntity<List<ContagemDTO>> porTipo(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) StatusConsulta status) {
+        return ResponseEntity.ok(estatisticaService.contarPorTipo(inicio, fim, status));
+    }
+
+    @GetMapping("/veterinario")
+    @Operation(summary = "Consultas por veterinário", description = "Os veterinários com mais consultas no período, até `limite`")
+    public ResponseEntity<List<ContagemVeterinarioDTO>> porVeterinario(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) StatusConsulta status,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(estatisticaService.contarPorVeterinario(inicio, fim, status,
+                paginacaoProperties.limiteEfetivo(limite)));
+    }
+
+    @GetMapping("/periodo")
+    @Operation(summary = "Consultas por dia ou semana",
+            description = "agrupamento=dia (padrão) ou semana (começando na segunda-feira); períodos sem consultas vêm com zero")
+    public ResponseEntity<List<ContagemPeriodoDTO>> porPeriodo(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) StatusConsulta status,
+            @RequestParam(required = false) String agrupamento) {
+        return ResponseEntity.ok(estatisticaService.contarPorPeriodo(inicio, fim, status,
+                AgrupamentoTemporal.resolver(agrupamento)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.vitalcajavet.msagendamentoconsultas.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GET condicional: o controller calcula a ETag antes de montar o corpo e, se {@code If-None-Match} bater
+ * ({@code WebRequest#checkNotModified}), responde 304 sem serializar nada. A ETag vem de leituras baratas: as
+ * versões no banco ou as listas já em cache; em {@code /hoje}, somadas à versão dos veterinários citados e aos
+ * nomes de animais já em cache. Os nomes só são preenchidos, e o serviço de animais só é chamado, quando a
+ * resposta é 200.
+ */
+final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    static String etag(Object... partes) {
+        return Arrays.stream(partes).map(String::valueOf).collect(Collectors.joining("-"));
+    }
+
+    // Para coleções já em memória: hash de 64 bits dos campos que aparecem no corpo, sem serializá-lo.
+    static <T> String resumo(List<T> itens, Function<T, List<?>> campos) {
+        long hash = itens.size();
+        for (T item : itens) {
+            for (Object campo : campos.apply(item)) {
+                hash = hash * 0x9E3779B97F4A7C15L + Objects.hashCode(campo);
+            }
+        }
+        return itens.size() + "-" + Long.toHexString(hash);
+    }
+
+    static <T> ResponseEntity<T> naoModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T corpo) {
+        return ResponseEntity.ok().eTag(etag).body(corpo);
+    }
+}
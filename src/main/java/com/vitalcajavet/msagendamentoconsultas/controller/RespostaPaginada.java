@@ -0,0 +1,31 @@
+package com.vitalcajavet.msagendamentoconsultas.controller;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.Pagina;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+final class RespostaPaginada {
+
+    static final String PROXIMO_CURSOR = "X-Next-Cursor";
+
+    private RespostaPaginada() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(Pagina<T> pagina) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+
+        if (pagina.proximoCursor() != null) {
+            String cursor = pagina.proximoCursor().codificar();
+            String proximaPagina = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", cursor)
+                    .toUriString();
+            resposta.header(PROXIMO_CURSOR, cursor)
+                    .header(HttpHeaders.LINK, "<" + proximaPagina + ">; rel=\"next\"");
+        }
+
+        return resposta.body(pagina.itens());
+    }
+}
@@ -1,5 +1,8 @@
 package com.vitalcajavet.msagendamentoconsultas.controller;
 
+import com.vitalcajavet.msagendamentoconsultas.config.PaginacaoProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.dto.Pagina;
 import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
 import com.vitalcajavet.msagendamentoconsultas.service.VeterinarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,6 +10,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -16,30 +21,47 @@ import java.util.List;
 public class VeterinarioController {
 
     private final VeterinarioService veterinarioService;
+    private final PaginacaoProperties paginacaoProperties;
 
-    public VeterinarioController(VeterinarioService veterinarioService) {
+    public VeterinarioController(VeterinarioService veterinarioService, PaginacaoProperties paginacaoProperties) {
         this.veterinarioService = veterinarioService;
+        this.paginacaoProperties = paginacaoProperties;
     }
 
     @GetMapping
     @Operation(summary = "Listar todos os veterinários")
-    public ResponseEntity<List<Veterinario>> listarTodos() {
-        List<Veterinario> veterinarios = veterinarioService.findAll();
-        return ResponseEntity.ok(veterinarios);
+    public ResponseEntity<List<Veterinario>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        Pagina<Veterinario> veterinarios = veterinarioService.findPagina(
+                CursorPagina.decodificarOuInicio(cursor), paginacaoProperties.limiteEfetivo(limite));
+        return RespostaPaginada.ok(veterinarios);
     }
 
     @GetMapping("/ativos")
     @Operation(summary = "Listar veterinários ativos")
-    public ResponseEntity<List<Veterinario>> listarAtivos() {
+    public ResponseEntity<List<Veterinario>> listarAtivos(WebRequest request) {
         List<Veterinario> veterinarios = veterinarioService.findAllAtivos();
-        return ResponseEntity.ok(veterinarios);
+
+        String etag = RespostaCondicional.etag("ativos", RespostaCondicional.resumo(veterinarios,
+                v -> Arrays.asList(v.getId(), v.getVersion(), v.getUpdatedAt())));
+        if (request.checkNotModified(etag)) {
+            return RespostaCondicional.naoModificado(etag);
+        }
+        return RespostaCondicional.ok(etag, veterinarios);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar veterinário por ID")
-    public ResponseEntity<Veterinario> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Veterinario> buscarPorId(@PathVariable Long id, WebRequest request) {
         return veterinarioService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(veterinario -> {
+                    String etag = RespostaCondicional.etag("veterinario", id, veterinario.getVersion(),
+                            veterinario.getUpdatedAt());
+                    return request.checkNotModified(etag)
+                            ? RespostaCondicional.<Veterinario>naoModificado(etag)
+                            : RespostaCondicional.ok(etag, veterinario);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -63,14 +85,11 @@ public class VeterinarioController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar veterinário")
+    @Operation(summary = "Atualizar veterinário",
+            description = "Envie em version a versão lida: se o veterinário mudou desde então, a resposta é 409")
     public ResponseEntity<Veterinario> atualizar(@PathVariable Long id, @RequestBody Veterinario veterinario) {
-        try {
-            Veterinario veterinarioAtualizado = veterinarioService.update(id, veterinario);
-            return ResponseEntity.ok(veterinarioAtualizado);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Veterinario veterinarioAtualizado = veterinarioService.update(id, veterinario);
+        return ResponseEntity.ok(veterinarioAtualizado);
     }
 
     @DeleteMapping("/{id}")
@@ -86,25 +105,27 @@ public class VeterinarioController {
     @PatchMapping("/{id}/desativar")
     @Operation(summary = "Desativar veterinário")
     public ResponseEntity<Veterinario> desativar(@PathVariable Long id) {
-        try {
-            Veterinario veterinarioDesativado = veterinarioService.desativar(id);
-            return ResponseEntity.ok(veterinarioDesativado);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Veterinario veterinarioDesativado = veterinarioService.desativar(id);
+        return ResponseEntity.ok(veterinarioDesativado);
     }
 
     @GetMapping("/buscar")
-    @Operation(summary = "Buscar veterinários por nome")
-    public ResponseEntity<List<Veterinario>> buscarPorNome(@RequestParam String nome) {
-        List<Veterinario> veterinarios = veterinarioService.findByNome(nome);
+    @Operation(summary = "Buscar veterinários por nome",
+            description = "Trecho do nome (ao menos 3 caracteres), sem diferenciar maiúsculas nem acentos. "
+                    + "Apenas veterinários ativos")
+    public ResponseEntity<List<Veterinario>> buscarPorNome(
+            @RequestParam String nome, @RequestParam(required = false) Integer limite) {
+        List<Veterinario> veterinarios = veterinarioService.findByNome(nome, paginacaoProperties.limiteEfetivo(limite));
         return ResponseEntity.ok(veterinarios);
     }
 
     @GetMapping("/especialidade")
-    @Operation(summary = "Buscar veterinários por especialidade")
-    public ResponseEntity<List<Veterinario>> buscarPorEspecialidade(@RequestParam String especialidade) {
-        List<Veterinario> veterinarios = veterinarioService.findByEspecialidade(especialidade);
+    @Operation(summary = "Buscar veterinários por especialidade",
+            description = "Trecho da especialidade, com ao menos 3 caracteres")
+    public ResponseEntity<List<Veterinario>> buscarPorEspecialidade(
+            @RequestParam String especialidade, @RequestParam(required = false) Integer limite) {
+        List<Veterinario> veterinarios = veterinarioService.findByEspecialidade(
+                especialidade, paginacaoProperties.limiteEfetivo(limite));
         return ResponseEntity.ok(veterinarios);
     }
 
@@ -0,0 +1,45 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+public enum AgrupamentoTemporal {
+
+    DIA("day"),
+    SEMANA("week");
+
+    private final String unidadeSql;
+
+    AgrupamentoTemporal(String unidadeSql) {
+        this.unidadeSql = unidadeSql;
+    }
+
+    public String getUnidadeSql() {
+        return unidadeSql;
+    }
+
+    /** Início do dia ou da semana (segunda-feira, como o {@code date_trunc('week', ...)} do PostgreSQL). */
+    public LocalDate inicioDoPeriodo(LocalDate data) {
+        return this == DIA ? data : data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public LocalDate proximoPeriodo(LocalDate inicio) {
+        return this == DIA ? inicio.plusDays(1) : inicio.plusWeeks(1);
+    }
+
+    public static AgrupamentoTemporal resolver(String agrupamento) {
+        if (agrupamento == null || agrupamento.isBlank()) {
+            return DIA;
+        }
+
+        try {
+            return valueOf(agrupamento.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Agrupamento inválido: " + agrupamento + ". Use dia ou semana");
+        }
+    }
+}
@@ -27,4 +27,11 @@ public class ConsultaRequestDTO {
 
     @NotNull(message = "Tipo de consulta é obrigatório")
     private TipoConsulta tipo;
+
+    // Na atualização: versão lida pelo cliente. Se a consulta mudou desde então, a atualização recebe 409.
+    private Long version;
+
+    public ConsultaRequestDTO(Long animalId, Long veterinarioId, LocalDateTime dataHora, TipoConsulta tipo) {
+        this(animalId, veterinarioId, dataHora, tipo, null);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.vitalcajavet.msagendamentoconsultas.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
 import lombok.AllArgsConstructor;
@@ -24,4 +25,21 @@ public class ConsultaResponseDTO {
 
     private String nomeAnimal;
     private String nomeVeterinario;
+
+    // O cliente a devolve no PUT para não sobrescrever uma alteração que não viu.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    public ConsultaResponseDTO(Long id, Long animalId, Long veterinarioId, LocalDateTime dataHora,
+                               TipoConsulta tipo, StatusConsulta status,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, animalId, veterinarioId, dataHora, tipo, status, createdAt, updatedAt, null);
+    }
+
+    public ConsultaResponseDTO(Long id, Long animalId, Long veterinarioId, LocalDateTime dataHora,
+                               TipoConsulta tipo, StatusConsulta status,
+                               LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, animalId, veterinarioId, dataHora, tipo, status, createdAt, updatedAt,
+                "Animal #" + animalId, "Veterinário #" + veterinarioId, version);
+    }
 }
\ No newline at end of file
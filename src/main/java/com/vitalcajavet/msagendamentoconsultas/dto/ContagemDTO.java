@@ -0,0 +1,15 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemDTO {
+    private String chave;
+    private long total;
+}
@@ -0,0 +1,17 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemPeriodoDTO {
+    private LocalDate inicio;
+    private long total;
+}
@@ -0,0 +1,16 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemVeterinarioDTO {
+    private Long veterinarioId;
+    private String nomeVeterinario;
+    private long total;
+}
@@ -0,0 +1,39 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record CursorPagina(LocalDateTime dataHora, long id) {
+
+    public static final CursorPagina INICIO = new CursorPagina(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String valor = (dataHora == null ? "" : dataHora.toString()) + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPagina decodificarOuInicio(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new BadRequestException("Cursor de paginação inválido");
+            }
+            String dataHora = valor.substring(0, separador);
+            long id = Long.parseLong(valor.substring(separador + 1));
+            return new CursorPagina(dataHora.isEmpty() ? null : LocalDateTime.parse(dataHora), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public enum FormatoHorarios {
+
+    LISTA(MediaType.APPLICATION_JSON),
+    INTERVALOS(MediaType.parseMediaType("application/vnd.vitalcajavet.horarios-intervalos+json")),
+    BITMAP(MediaType.parseMediaType("application/vnd.vitalcajavet.horarios-bitmap+json"));
+
+    private final MediaType mediaType;
+
+    FormatoHorarios(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static FormatoHorarios resolver(String formato, String accept) {
+        if (formato != null && !formato.isBlank()) {
+            try {
+                return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(
+                        "Formato inválido: " + formato + ". Use lista, intervalos ou bitmap");
+            }
+        }
+
+        if (accept != null && !accept.isBlank()) {
+            List<MediaType> aceitos = MediaType.parseMediaTypes(accept);
+            for (MediaType aceito : aceitos) {
+                for (FormatoHorarios candidato : Arrays.asList(INTERVALOS, BITMAP)) {
+                    if (candidato.mediaType.equalsTypeAndSubtype(aceito)) {
+                        return candidato;
+                    }
+                }
+            }
+        }
+
+        return LISTA;
+    }
+}
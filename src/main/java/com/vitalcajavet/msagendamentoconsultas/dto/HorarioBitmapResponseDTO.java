@@ -0,0 +1,25 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bit {@code i} (LSB primeiro em cada byte) representa o minuto {@code origem + i}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioBitmapResponseDTO {
+    private Long veterinarioId;
+    private String nomeVeterinario;
+    private LocalDateTime origem;
+    private int resolucaoMinutos;
+    private int totalSlots;
+    private String livres;
+    private String ocupados;
+}
@@ -0,0 +1,20 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioIntervalosResponseDTO {
+    private Long veterinarioId;
+    private String nomeVeterinario;
+    private LocalDate data;
+    private IntervalosHorario livres;
+    private IntervalosHorario ocupados;
+}
@@ -0,0 +1,36 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * Minutos marcados em um bitset a partir de {@code origem}, serializados como
+ * {@code [[inicio, fim), ...]} direto do bitset, sem lista intermediária.
+ */
+@JsonSerialize(using = IntervalosHorario.Serializer.class)
+public record IntervalosHorario(LocalDateTime origem, BitSet minutos) {
+
+    public static class Serializer extends JsonSerializer<IntervalosHorario> {
+
+        @Override
+        public void serialize(IntervalosHorario intervalos, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            BitSet minutos = intervalos.minutos();
+            gen.writeStartArray();
+            for (int inicio = minutos.nextSetBit(0); inicio >= 0; inicio = minutos.nextSetBit(inicio)) {
+                int fim = minutos.nextClearBit(inicio);
+                gen.writeStartArray();
+                provider.defaultSerializeValue(intervalos.origem().plusMinutes(inicio), gen);
+                provider.defaultSerializeValue(intervalos.origem().plusMinutes(fim), gen);
+                gen.writeEndArray();
+                inicio = fim;
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteConsultasRequestDTO {
+
+    @NotNull(message = "Modo do lote é obrigatório")
+    private ModoLote modo;
+
+    @NotEmpty(message = "O lote deve ter ao menos uma consulta")
+    private List<ConsultaRequestDTO> consultas;
+}
@@ -0,0 +1,20 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteConsultasResponseDTO {
+    private ModoLote modo;
+    private int total;
+    private int agendadas;
+    private int rejeitadas;
+    private List<ResultadoItemLoteDTO> resultados;
+}
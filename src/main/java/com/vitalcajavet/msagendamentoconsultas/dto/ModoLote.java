@@ -0,0 +1,6 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+public enum ModoLote {
+    TUDO_OU_NADA,
+    MELHOR_ESFORCO
+}
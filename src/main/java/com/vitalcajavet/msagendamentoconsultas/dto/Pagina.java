@@ -0,0 +1,20 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record Pagina<T>(List<T> itens, CursorPagina proximoCursor) {
+
+    public static <T> Pagina<T> de(List<T> resultados, int limite, Function<T, CursorPagina> cursorDe) {
+        if (resultados.size() <= limite) {
+            return new Pagina<>(resultados, null);
+        }
+
+        List<T> itens = resultados.subList(0, limite);
+        return new Pagina<>(itens, cursorDe.apply(itens.get(limite - 1)));
+    }
+
+    public <R> Pagina<R> map(Function<T, R> conversor) {
+        return new Pagina<>(itens.stream().map(conversor).toList(), proximoCursor);
+    }
+}
@@ -0,0 +1,17 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoItemLoteDTO {
+    private int indice;
+    private int status;
+    private Long consultaId;
+    private String erro;
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Consulta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consultas_seq")
+    @SequenceGenerator(name = "consultas_seq", sequenceName = "consultas_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "animal_id", nullable = false)
@@ -41,6 +42,9 @@ public class Consulta {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Version
+    private Long version;
+
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
@@ -38,6 +38,9 @@ public class Veterinario {
     @Column(name = "created_at", updatable = false)
     private java.time.LocalDateTime createdAt = java.time.LocalDateTime.now();
 
+    @Version
+    private Long version;
+
     @Column(name = "updated_at")
     private java.time.LocalDateTime updatedAt = java.time.LocalDateTime.now();
 
@@ -0,0 +1,76 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import com.vitalcajavet.msagendamentoconsultas.config.ExportacaoProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@Repository
+public class ConsultaExportacaoRepository {
+
+    private static final String SQL_PERIODO = """
+            SELECT c.id, c.animal_id, c.veterinario_id, c.data_hora, c.tipo, c.status,
+                   c.created_at, c.updated_at, v.nome AS nome_veterinario
+            FROM consultas c
+            LEFT JOIN veterinarios v ON v.id = c.veterinario_id
+            WHERE c.data_hora >= ? AND c.data_hora < ?
+              AND (CAST(? AS VARCHAR) IS NULL OR c.status = CAST(? AS VARCHAR))
+            ORDER BY c.data_hora, c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExportacaoProperties exportacaoProperties;
+
+    public ConsultaExportacaoRepository(JdbcTemplate jdbcTemplate, ExportacaoProperties exportacaoProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportacaoProperties = exportacaoProperties;
+    }
+
+    /**
+     * Percorre as consultas do período com um cursor somente-avanço, entregando uma linha por vez.
+     * O driver do Postgres só busca em lotes de {@code fetchSize} dentro de uma transação (autocommit
+     * desligado); fora dela o resultado inteiro é carregado antes da primeira linha.
+     */
+    public void percorrerPorPeriodo(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                                    Consumer<ConsultaResponseDTO> consumidor) {
+        String filtroStatus = status != null ? status.name() : null;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SQL_PERIODO, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportacaoProperties.getFetchSize());
+            statement.setTimestamp(1, Timestamp.valueOf(inicio));
+            statement.setTimestamp(2, Timestamp.valueOf(fim));
+            statement.setString(3, filtroStatus);
+            statement.setString(4, filtroStatus);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumidor.accept(mapear(resultSet)));
+    }
+
+    private ConsultaResponseDTO mapear(ResultSet resultSet) throws SQLException {
+        ConsultaResponseDTO dto = new ConsultaResponseDTO();
+        dto.setId(resultSet.getLong("id"));
+        dto.setAnimalId(resultSet.getLong("animal_id"));
+        dto.setVeterinarioId(resultSet.getLong("veterinario_id"));
+        dto.setDataHora(resultSet.getObject("data_hora", LocalDateTime.class));
+        dto.setTipo(TipoConsulta.valueOf(resultSet.getString("tipo")));
+        dto.setStatus(StatusConsulta.valueOf(resultSet.getString("status")));
+        dto.setCreatedAt(resultSet.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(resultSet.getObject("updated_at", LocalDateTime.class));
+        dto.setNomeAnimal("Animal #" + dto.getAnimalId());
+
+        String nomeVeterinario = resultSet.getString("nome_veterinario");
+        dto.setNomeVeterinario(nomeVeterinario != null ? nomeVeterinario : "Veterinário #" + dto.getVeterinarioId());
+        return dto;
+    }
+}
@@ -1,13 +1,17 @@
 package com.vitalcajavet.msagendamentoconsultas.repository;
 
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
 import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,13 +22,61 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
 
     Optional<Consulta> findById(Long id);
 
-    List<Consulta> findByVeterinarioId(Long veterinarioId);
+    String APOS_CURSOR = "c.dataHora >= :cursorDataHora AND " +
+            "(c.dataHora > :cursorDataHora OR c.id > :cursorId) ";
 
-    List<Consulta> findByAnimalId(Long animalId);
+    String ORDEM_CURSOR = " ORDER BY c.dataHora, c.id";
 
-    List<Consulta> findByStatus(StatusConsulta status);
+    String PROJECAO_RESPOSTA = "SELECT new com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO(" +
+            "c.id, c.animalId, c.veterinarioId, c.dataHora, c.tipo, c.status, c.createdAt, c.updatedAt, c.version) " +
+            "FROM Consulta c ";
 
-    List<Consulta> findByTipo(TipoConsulta tipo);
+    @Query("SELECT new com.vitalcajavet.msagendamentoconsultas.repository.VersaoConsulta(" +
+            "c.animalId, c.version, v.version, c.updatedAt) " +
+            "FROM Consulta c LEFT JOIN Veterinario v ON v.id = c.veterinarioId WHERE c.id = :id")
+    Optional<VersaoConsulta> findVersaoById(@Param("id") Long id);
+
+    @Query(PROJECAO_RESPOSTA + "WHERE c.id = :id")
+    Optional<ConsultaResponseDTO> findRespostaById(@Param("id") Long id);
+
+    @Query(PROJECAO_RESPOSTA + "WHERE " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPagina(
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE c.veterinarioId = :veterinarioId AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByVeterinarioId(
+            @Param("veterinarioId") Long veterinarioId,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE c.animalId = :animalId AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByAnimalId(
+            @Param("animalId") Long animalId,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE c.status = :status AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByStatus(
+            @Param("status") StatusConsulta status,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
+
+    @Query(PROJECAO_RESPOSTA + "WHERE c.tipo = :tipo AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByTipo(
+            @Param("tipo") TipoConsulta tipo,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
 
     @Query("SELECT COUNT(c) > 0 FROM Consulta c WHERE " +
             "c.veterinarioId = :veterinarioId AND " +
@@ -35,44 +87,74 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
             @Param("dataHora") LocalDateTime dataHora
     );
 
-    @Query("SELECT c FROM Consulta c WHERE " +
+    @Query("SELECT COUNT(c) > 0 FROM Consulta c WHERE " +
             "c.veterinarioId = :veterinarioId AND " +
-            "CAST(c.dataHora AS date) = CAST(:data AS date) AND " +
-            "c.status <> 'CANCELADA'")
-    List<Consulta> findByVeterinarioIdAndData(
+            "c.dataHora = :dataHora AND " +
+            "c.status <> 'CANCELADA' AND " +
+            "c.id <> :id")
+    boolean existsByVeterinarioIdAndDataHoraAndIdNot(
             @Param("veterinarioId") Long veterinarioId,
-            @Param("data") LocalDateTime data
+            @Param("dataHora") LocalDateTime dataHora,
+            @Param("id") Long id
     );
 
+    @Query("SELECT new com.vitalcajavet.msagendamentoconsultas.repository.HorarioOcupado(c.veterinarioId, c.dataHora) " +
+            "FROM Consulta c WHERE " +
+            "c.veterinarioId IN :veterinarioIds AND " +
+            "c.dataHora IN :horarios AND " +
+            "c.status <> 'CANCELADA'")
+    List<HorarioOcupado> findHorariosOcupadosEntre(
+            @Param("veterinarioIds") Collection<Long> veterinarioIds,
+            @Param("horarios") Collection<LocalDateTime> horarios
+    );
+
+    @Transactional(readOnly = true)
     @Query("SELECT c.dataHora FROM Consulta c WHERE " +
             "c.veterinarioId = :veterinarioId AND " +
-            "CAST(c.dataHora AS date) = CAST(:data AS date) AND " +
+            "c.dataHora >= :inicioDoDia AND c.dataHora < :inicioDoDiaSeguinte AND " +
             "c.status <> 'CANCELADA'")
     List<LocalDateTime> findHorariosOcupadosByVeterinarioIdAndData(
             @Param("veterinarioId") Long veterinarioId,
-            @Param("data") LocalDateTime data
+            @Param("inicioDoDia") LocalDateTime inicioDoDia,
+            @Param("inicioDoDiaSeguinte") LocalDateTime inicioDoDiaSeguinte
     );
 
-    @Query("SELECT CASE WHEN (:agora < c.dataHora - 2 HOUR) THEN true ELSE false END " +
-            "FROM Consulta c WHERE c.id = :id")
-    boolean podeSerCancelada(
-            @Param("id") Long id,
-            @Param("agora") LocalDateTime agora
+    @Query(PROJECAO_RESPOSTA + "WHERE c.dataHora >= :agora AND c.status = 'AGENDADA' AND " +
+            APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaFuturas(
+            @Param("agora") LocalDateTime agora,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
     );
 
-    @Query("SELECT c FROM Consulta c WHERE c.dataHora >= :agora AND c.status = 'AGENDADA'")
-    List<Consulta> findConsultasFuturas(@Param("agora") LocalDateTime agora);
+    @Query(PROJECAO_RESPOSTA + "WHERE " +
+            "c.dataHora >= :inicio AND c.dataHora < :fim AND " +
+            "c.status <> 'CANCELADA' AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByPeriodo(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
+    );
 
-    @Query("SELECT c FROM Consulta c WHERE " +
+    @Query(PROJECAO_RESPOSTA + "WHERE " +
             "c.veterinarioId = :veterinarioId AND " +
-            "c.dataHora BETWEEN :inicio AND :fim AND " +
-            "c.status <> 'CANCELADA'")
-    List<Consulta> findByVeterinarioIdAndPeriodo(
+            "c.dataHora >= :inicio AND c.dataHora < :fim AND " +
+            "c.status <> 'CANCELADA' AND " + APOS_CURSOR + ORDEM_CURSOR)
+    List<ConsultaResponseDTO> findPaginaByVeterinarioIdAndPeriodo(
             @Param("veterinarioId") Long veterinarioId,
             @Param("inicio") LocalDateTime inicio,
-            @Param("fim") LocalDateTime fim
+            @Param("fim") LocalDateTime fim,
+            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+            @Param("cursorId") Long cursorId,
+            Pageable limite
     );
 
-    @Query("SELECT c FROM Consulta c WHERE CAST(c.dataHora AS date) = CURRENT_DATE")
-    List<Consulta> findConsultasDeHoje();
+    @Query(PROJECAO_RESPOSTA + "WHERE c.dataHora >= :inicioDoDia AND c.dataHora < :inicioDoDiaSeguinte")
+    List<ConsultaResponseDTO> findConsultasDeHoje(
+            @Param("inicioDoDia") LocalDateTime inicioDoDia,
+            @Param("inicioDoDiaSeguinte") LocalDateTime inicioDoDiaSeguinte
+    );
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.AgrupamentoTemporal;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemVeterinarioDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contagens de consultas no intervalo {@code [inicio, fim)}, agregadas no banco. Todas filtram por
+ * {@code data_hora} e leem apenas colunas de {@code idx_consultas_data_hora_estatisticas}.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class EstatisticaConsultaRepository {
+
+    private static final String NO_PERIODO = """
+            c.data_hora >= ? AND c.data_hora < ?
+              AND (CAST(? AS VARCHAR) IS NULL OR c.status = CAST(? AS VARCHAR))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticaConsultaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Long> contarPorStatus(LocalDateTime inicio, LocalDateTime fim) {
+        return contarPorColuna("status", inicio, fim, null);
+    }
+
+    public Map<String, Long> contarPorTipo(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status) {
+        return contarPorColuna("tipo", inicio, fim, status);
+    }
+
+    public List<ContagemVeterinarioDTO> contarPorVeterinario(LocalDateTime inicio, LocalDateTime fim,
+                                                             StatusConsulta status, int limite) {
+        String filtroStatus = status != null ? status.name() : null;
+        return jdbcTemplate.query("""
+                        SELECT t.veterinario_id, v.nome, t.total
+                        FROM (SELECT c.veterinario_id, count(*) AS total
+                              FROM consultas c
+                              WHERE """ + NO_PERIODO + """
+                              GROUP BY c.veterinario_id
+                              ORDER BY total DESC, c.veterinario_id
+                              LIMIT ?) t
+                        LEFT JOIN veterinarios v ON v.id = t.veterinario_id
+                        ORDER BY t.total DESC, t.veterinario_id
+                        """,
+                (rs, linha) -> new ContagemVeterinarioDTO(rs.getLong("veterinario_id"), rs.getString("nome"),
+                        rs.getLong("total")),
+                inicio, fim, filtroStatus, filtroStatus, limite);
+    }
+
+    public Map<LocalDate, Long> contarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                                                 AgrupamentoTemporal agrupamento) {
+        String filtroStatus = status != null ? status.name() : null;
+        Map<LocalDate, Long> totais = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT date_trunc(?, c.data_hora) AS periodo, count(*) AS total
+                        FROM consultas c
+                        WHERE """ + NO_PERIODO + """
+                        GROUP BY 1
+                        """,
+                rs -> {
+                    totais.put(rs.getObject("periodo", LocalDateTime.class).toLocalDate(), rs.getLong("total"));
+                },
+                agrupamento.getUnidadeSql(), inicio, fim, filtroStatus, filtroStatus);
+        return totais;
+    }
+
+    private Map<String, Long> contarPorColuna(String coluna, LocalDateTime inicio, LocalDateTime fim,
+                                              StatusConsulta status) {
+        String filtroStatus = status != null ? status.name() : null;
+        Map<String, Long> totais = new HashMap<>();
+        jdbcTemplate.query("SELECT c." + coluna + " AS chave, count(*) AS total FROM consultas c WHERE "
+                        + NO_PERIODO + " GROUP BY c." + coluna,
+                rs -> {
+                    totais.put(rs.getString("chave"), rs.getLong("total"));
+                },
+                inicio, fim, filtroStatus, filtroStatus);
+        return totais;
+    }
+}
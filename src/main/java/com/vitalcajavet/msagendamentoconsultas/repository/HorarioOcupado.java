@@ -0,0 +1,6 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import java.time.LocalDateTime;
+
+public record HorarioOcupado(Long veterinarioId, LocalDateTime dataHora) {
+}
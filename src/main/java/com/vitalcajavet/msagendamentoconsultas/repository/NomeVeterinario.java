@@ -0,0 +1,4 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+public record NomeVeterinario(Long id, String nome) {
+}
@@ -0,0 +1,98 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class TransicaoConsultaRepository {
+
+    private static final String SQL_TRANSICAO = """
+            WITH alvo AS (
+                SELECT id, animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at, version
+                FROM consultas
+                WHERE id = ?
+            ), atualizada AS (
+                UPDATE consultas c
+                SET status = ?, updated_at = now(), version = c.version + 1
+                FROM alvo
+                WHERE c.id = alvo.id
+                  AND c.status = ?
+                  AND (CAST(? AS TIMESTAMP) IS NULL OR c.data_hora > CAST(? AS TIMESTAMP))
+                RETURNING c.id, c.animal_id, c.veterinario_id, c.data_hora, c.tipo, c.status, c.updated_at, c.version
+            )
+            SELECT a.id, a.created_at,
+                   COALESCE(u.animal_id, a.animal_id) AS animal_id,
+                   COALESCE(u.veterinario_id, a.veterinario_id) AS veterinario_id,
+                   COALESCE(u.data_hora, a.data_hora) AS data_hora,
+                   COALESCE(u.tipo, a.tipo) AS tipo,
+                   COALESCE(u.status, a.status) AS status,
+                   COALESCE(u.updated_at, a.updated_at) AS updated_at,
+                   COALESCE(u.version, a.version) AS version,
+                   u.id IS NOT NULL AS aplicada
+            FROM alvo a
+            LEFT JOIN atualizada u ON u.id = a.id
+            """;
+
+    private static final String SQL_ATUAL = """
+            SELECT id, animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at, version,
+                   false AS aplicada
+            FROM consultas
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransicaoConsultaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aplica {@code esperado -> novo} em um único comando. Quando a transição não é aplicada, a
+     * consulta volta como está no banco, para que o chamador saiba o motivo (status ou prazo).
+     *
+     * <p>O {@code alvo} é lido no snapshot do início do comando. Se outra transação mudou a linha e fez
+     * commit enquanto o UPDATE esperava o lock, o UPDATE reavalia o {@code WHERE} na versão nova e não
+     * aplica, mas o {@code alvo} ainda mostra o status esperado. Nesse caso a linha é relida em um
+     * segundo comando, que já enxerga o commit concorrente.
+     *
+     * @param dataHoraMinima a consulta só transiciona se for posterior a este instante; {@code null} ignora o prazo
+     */
+    public Optional<ResultadoTransicao> transicionar(Long id, StatusConsulta esperado, StatusConsulta novo,
+                                                     LocalDateTime dataHoraMinima) {
+        Timestamp limite = dataHoraMinima != null ? Timestamp.valueOf(dataHoraMinima) : null;
+        Optional<ResultadoTransicao> resultado = jdbcTemplate.query(SQL_TRANSICAO, this::mapear,
+                id, novo.name(), esperado.name(), limite, limite).stream().findFirst();
+
+        if (resultado.isPresent() && !resultado.get().aplicada()
+                && resultado.get().consulta().getStatus() == esperado) {
+            return jdbcTemplate.query(SQL_ATUAL, this::mapear, id).stream().findFirst();
+        }
+        return resultado;
+    }
+
+    private ResultadoTransicao mapear(ResultSet resultSet, int linha) throws SQLException {
+        Consulta consulta = new Consulta();
+        consulta.setId(resultSet.getLong("id"));
+        consulta.setAnimalId(resultSet.getLong("animal_id"));
+        consulta.setVeterinarioId(resultSet.getLong("veterinario_id"));
+        consulta.setDataHora(resultSet.getObject("data_hora", LocalDateTime.class));
+        consulta.setTipo(TipoConsulta.valueOf(resultSet.getString("tipo")));
+        consulta.setStatus(StatusConsulta.valueOf(resultSet.getString("status")));
+        consulta.setCreatedAt(resultSet.getObject("created_at", LocalDateTime.class));
+        consulta.setUpdatedAt(resultSet.getObject("updated_at", LocalDateTime.class));
+        consulta.setVersion(resultSet.getLong("version"));
+        return new ResultadoTransicao(consulta, resultSet.getBoolean("aplicada"));
+    }
+
+    public record ResultadoTransicao(Consulta consulta, boolean aplicada) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * O suficiente para montar a ETag de uma consulta sem carregá-la: toda escrita incrementa a versão da consulta,
+ * e a do veterinário cobre a troca do nome exibido na resposta. O nome do animal vem de outro serviço: o
+ * controller procura o {@code animalId} só no cache de nomes, sem chamar o serviço, e o inclui na ETag.
+ */
+public record VersaoConsulta(Long animalId, Long versao, Long versaoVeterinario, LocalDateTime updatedAt) {
+}
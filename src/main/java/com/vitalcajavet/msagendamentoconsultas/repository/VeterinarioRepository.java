@@ -1,10 +1,12 @@
 package com.vitalcajavet.msagendamentoconsultas.repository;
 
 import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,9 @@ public interface VeterinarioRepository extends JpaRepository<Veterinario, Long>
 
     Optional<Veterinario> findById(Long id);
 
+    @Query("SELECT v FROM Veterinario v WHERE v.id > :cursorId ORDER BY v.id")
+    List<Veterinario> findPagina(@Param("cursorId") Long cursorId, Pageable limite);
+
     boolean existsById(Long id);
 
     Optional<Veterinario> findByCpf(String cpf);
@@ -22,12 +27,20 @@ public interface VeterinarioRepository extends JpaRepository<Veterinario, Long>
     @Query("SELECT v FROM Veterinario v WHERE v.ativo = true")
     List<Veterinario> findAllAtivos();
 
-    @Query("SELECT v FROM Veterinario v WHERE LOWER(v.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND v.ativo = true")
-    List<Veterinario> findByNomeContainingIgnoreCase(@Param("nome") String nome);
+    @Query(value = "SELECT * FROM veterinarios v WHERE v.ativo " +
+            "AND lower(f_unaccent(v.nome)) LIKE '%' || lower(f_unaccent(:trecho)) || '%' " +
+            "ORDER BY v.nome, v.id LIMIT :limite", nativeQuery = true)
+    List<Veterinario> buscarAtivosPorTrechoDoNome(@Param("trecho") String trecho, @Param("limite") int limite);
+
+    @Query("SELECT new com.vitalcajavet.msagendamentoconsultas.repository.NomeVeterinario(v.id, v.nome) " +
+            "FROM Veterinario v WHERE v.id IN :ids")
+    List<NomeVeterinario> findNomesByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT COUNT(v) FROM Veterinario v WHERE v.ativo = true")
-    long countAtivos();
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM Veterinario v WHERE v.id IN :ids")
+    long sumVersionByIdIn(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT v FROM Veterinario v WHERE LOWER(v.especialidade) LIKE LOWER(CONCAT('%', :especialidade, '%')) AND v.ativo = true")
-    List<Veterinario> findByEspecialidadeContainingIgnoreCase(@Param("especialidade") String especialidade);
+    @Query(value = "SELECT * FROM veterinarios v WHERE v.ativo " +
+            "AND lower(f_unaccent(v.especialidade)) LIKE '%' || lower(f_unaccent(:trecho)) || '%' " +
+            "ORDER BY v.nome, v.id LIMIT :limite", nativeQuery = true)
+    List<Veterinario> buscarAtivosPorTrechoDaEspecialidade(@Param("trecho") String trecho, @Param("limite") int limite);
 }
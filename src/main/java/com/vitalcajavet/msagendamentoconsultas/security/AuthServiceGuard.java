@@ -0,0 +1,188 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class AuthServiceGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthServiceGuard.class);
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final AuthServiceProperties properties;
+    private final Semaphore bulkhead;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejeicoesCircuito;
+    private final Counter rejeicoesBulkhead;
+    private final Timer validacoesAceitas;
+    private final Timer validacoesRecusadas;
+    private final Timer validacoesComFalha;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private int falhasConsecutivas;
+    private long abertoAteNanos;
+    private boolean tentativaEmAndamento;
+
+    public AuthServiceGuard(AuthServiceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+
+        this.rejeicoesCircuito = Counter.builder("auth.service.rejections")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.rejeicoesBulkhead = Counter.builder("auth.service.rejections")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+
+        this.validacoesAceitas = timerDeValidacao(meterRegistry, "valid");
+        this.validacoesRecusadas = timerDeValidacao(meterRegistry, "invalid");
+        this.validacoesComFalha = timerDeValidacao(meterRegistry, "unavailable");
+
+        for (CircuitState possivel : CircuitState.values()) {
+            Gauge.builder("auth.service.circuit.state", this, guard -> guard.state == possivel ? 1 : 0)
+                    .tag("state", possivel.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("auth.service.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    public <T> T executar(Supplier<T> chamada) {
+        boolean tentativa = adquirirPermissaoDoCircuito();
+
+        try {
+            if (!adquirirBulkhead()) {
+                rejeicoesBulkhead.increment();
+                throw new AuthServiceUnavailableException(
+                        "Serviço de autenticação sobrecarregado, tente novamente");
+            }
+
+            long inicio = System.nanoTime();
+            Timer timer = validacoesComFalha;
+            try {
+                T resultado = chamada.get();
+                registrarSucesso();
+                timer = validacoesAceitas;
+                return resultado;
+            } catch (AuthServiceUnavailableException e) {
+                registrarFalha();
+                throw e;
+            } catch (JwtValidationException e) {
+                timer = validacoesRecusadas;
+                throw e;
+            } finally {
+                timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                bulkhead.release();
+            }
+        } finally {
+            if (tentativa) {
+                liberarTentativa();
+            }
+        }
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    public double getRejeicoesCircuito() {
+        return rejeicoesCircuito.count();
+    }
+
+    public double getRejeicoesBulkhead() {
+        return rejeicoesBulkhead.count();
+    }
+
+    private static Timer timerDeValidacao(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.service.validation")
+                .description("Duração das chamadas ao /profile/me/ que passaram pelo circuito e pelo bulkhead")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private boolean adquirirPermissaoDoCircuito() {
+        lock.lock();
+        try {
+            if (state == CircuitState.OPEN && System.nanoTime() - abertoAteNanos >= 0) {
+                state = CircuitState.HALF_OPEN;
+                logger.info("Circuito do serviço de autenticação semiaberto, testando uma chamada");
+            }
+
+            if (state == CircuitState.CLOSED) {
+                return false;
+            }
+
+            if (state == CircuitState.HALF_OPEN && !tentativaEmAndamento) {
+                tentativaEmAndamento = true;
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        rejeicoesCircuito.increment();
+        throw new AuthServiceUnavailableException("Serviço de autenticação indisponível (circuito aberto)");
+    }
+
+    private boolean adquirirBulkhead() {
+        try {
+            return bulkhead.tryAcquire(properties.getMaxWaitForPermit().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void registrarSucesso() {
+        lock.lock();
+        try {
+            falhasConsecutivas = 0;
+            if (state != CircuitState.CLOSED) {
+                logger.info("Serviço de autenticação respondeu, circuito fechado");
+                state = CircuitState.CLOSED;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void registrarFalha() {
+        lock.lock();
+        try {
+            falhasConsecutivas++;
+            if (state == CircuitState.HALF_OPEN
+                    || falhasConsecutivas >= properties.getCircuitBreaker().getFailureThreshold()) {
+                state = CircuitState.OPEN;
+                abertoAteNanos = System.nanoTime() + properties.getCircuitBreaker().getOpenDuration().toNanos();
+                logger.warn("Circuito do serviço de autenticação aberto após {} falha(s) consecutiva(s)",
+                        falhasConsecutivas);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void liberarTentativa() {
+        lock.lock();
+        try {
+            tentativaEmAndamento = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component("authService")
+public class AuthServiceHealthIndicator implements HealthIndicator {
+
+    private final AuthServiceGuard authServiceGuard;
+
+    public AuthServiceHealthIndicator(AuthServiceGuard authServiceGuard) {
+        this.authServiceGuard = authServiceGuard;
+    }
+
+    @Override
+    public Health health() {
+        return Health.up()
+                .withDetail("circuitState", authServiceGuard.getState())
+                .withDetail("circuitRejections", (long) authServiceGuard.getRejeicoesCircuito())
+                .withDetail("bulkheadRejections", (long) authServiceGuard.getRejeicoesBulkhead())
+                .build();
+    }
+}
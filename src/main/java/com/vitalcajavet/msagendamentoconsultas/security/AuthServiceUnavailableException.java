@@ -0,0 +1,11 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+public class AuthServiceUnavailableException extends JwtValidationException {
+    public AuthServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,7 @@
 package com.vitalcajavet.msagendamentoconsultas.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,9 +22,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    public JwtAuthenticationFilter(JwtService jwtService, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -34,7 +38,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 || path.startsWith("/v3/api-docs")
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/api/v1/health")
-                || path.startsWith("/api/v1/auth");
+                || path.startsWith("/api/v1/auth")
+                || path.equals("/actuator/prometheus");
     }
 
     @Override
@@ -65,19 +70,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 filterChain.doFilter(request, response);
             } else {
                 logger.warn("Token inválido para: {}", request.getServletPath());
+                contarFalha("invalid_token");
                 sendError(response, "Token inválido");
             }
+        } catch (AuthServiceUnavailableException e) {
+            logger.warn("Serviço de autenticação indisponível para: {} - {}", request.getServletPath(), e.getMessage());
+            contarFalha("auth_service_unavailable");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (JwtValidationException e) {
+            logger.warn("Token recusado para: {} - {}", request.getServletPath(), e.getMessage());
+            contarFalha("invalid_token");
+            sendError(response, "Erro na autenticação: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Erro na autenticação para: {}", request.getServletPath(), e);
+            contarFalha("error");
             sendError(response, "Erro na autenticação: " + e.getMessage());
         }
     }
 
+    private void contarFalha(String reason) {
+        Counter.builder("auth.failures")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
     private void sendError(HttpServletResponse response, String message) throws IOException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        sendError(response, HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+
+    private void sendError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
-        response.getWriter().write("{\"error\": \"" + message + "\", \"status\": 401}");
+        response.getWriter().write("{\"error\": \"" + message + "\", \"status\": " + status + "}");
     }
 }
 
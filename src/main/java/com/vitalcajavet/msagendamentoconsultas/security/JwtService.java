@@ -1,5 +1,9 @@
 package com.vitalcajavet.msagendamentoconsultas.security;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -7,14 +11,35 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
 @Service
 public class JwtService {
 
     private final WebClient webClient;
+    private final TokenValidationCache tokenValidationCache;
+    private final LocalJwtVerifier localJwtVerifier;
+    private final JwtVerificationProperties verificationProperties;
+    private final AuthServiceGuard authServiceGuard;
+    private final AuthServiceProperties authServiceProperties;
+    private final SingleFlight<String, Boolean> validacoesEmAndamento = new SingleFlight<>();
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JwtService.class);
-
-    public JwtService(WebClient webClient) {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public JwtService(WebClient webClient,
+                      TokenValidationCache tokenValidationCache,
+                      LocalJwtVerifier localJwtVerifier,
+                      JwtVerificationProperties verificationProperties,
+                      AuthServiceGuard authServiceGuard,
+                      AuthServiceProperties authServiceProperties) {
         this.webClient = webClient;
+        this.tokenValidationCache = tokenValidationCache;
+        this.localJwtVerifier = localJwtVerifier;
+        this.verificationProperties = verificationProperties;
+        this.authServiceGuard = authServiceGuard;
+        this.authServiceProperties = authServiceProperties;
     }
 
     public boolean validateToken(String token) {
@@ -22,6 +47,34 @@ public class JwtService {
             throw new JwtValidationException("Token de autenticação não fornecido");
         }
 
+        if (verificationProperties.getMode() == JwtVerificationProperties.Mode.LOCAL) {
+            if (localJwtVerifier.verificar(token).isPresent()) {
+                return true;
+            }
+            if (!verificationProperties.isRemoteFallback()) {
+                throw new JwtValidationException("Token assinado com chave não reconhecida");
+            }
+            logger.debug("Chave do token desconhecida localmente, validando com o serviço de autenticação");
+        }
+
+        return validateRemotely(token);
+    }
+
+    private boolean validateRemotely(String token) {
+        if (tokenValidationCache.isValid(token)) {
+            logger.debug("Token encontrado no cache de validação");
+            return true;
+        }
+
+        return validacoesEmAndamento.executar(TokenValidationCache.hash(token), () -> {
+            if (tokenValidationCache.isValid(token)) {
+                return true;
+            }
+            return authServiceGuard.executar(() -> callProfileEndpoint(token));
+        });
+    }
+
+    private boolean callProfileEndpoint(String token) {
         try {
             String tokenToSend = token.startsWith("Bearer ") ? token : "Bearer " + token;
 
@@ -45,49 +98,61 @@ public class JwtService {
                     )
                     .onStatus(
                             status -> status.is5xxServerError(),
-                            response -> Mono.error(new JwtValidationException("Serviço de autenticação indisponível"))
+                            response -> Mono.error(new AuthServiceUnavailableException("Serviço de autenticação indisponível"))
                     )
                     .toBodilessEntity()
-                    .block();
+                    .block(authServiceProperties.totalTimeout());
 
             logger.debug("Token validado com sucesso via /profile/me/");
+            tokenValidationCache.registrarValido(token, extractExpiration(token));
             return true;
 
         } catch (JwtValidationException e) {
             throw e;
         } catch (Exception e) {
-            throw new JwtValidationException("Falha na validação do token: " + e.getMessage());
+            throw new AuthServiceUnavailableException("Falha ao contatar o serviço de autenticação: " + e.getMessage(), e);
         }
     }
 
     public String extractUsername(String token) {
+        return readPayload(token)
+                .map(payload -> firstText(payload, "username", "sub", "preferred_username"))
+                .orElse("unknown");
+    }
+
+    public Optional<Instant> extractExpiration(String token) {
+        return readPayload(token)
+                .map(payload -> payload.get("exp"))
+                .filter(JsonNode::canConvertToLong)
+                .map(exp -> Instant.ofEpochSecond(exp.asLong()));
+    }
+
+    private Optional<JsonNode> readPayload(String token) {
         try {
             if (token == null || token.isBlank()) {
-                return "unknown";
+                return Optional.empty();
             }
 
             String jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
             String[] parts = jwt.split("\\.");
 
             if (parts.length != 3) {
-                return "unknown";
+                return Optional.empty();
             }
 
-            String payload = new String(java.util.Base64.getUrlDecoder().decode(parts[1]));
+            return Optional.of(objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
 
-            if (payload.contains("\"username\"")) {
-                return payload.split("\"username\":\"")[1].split("\"")[0];
-            }
-            if (payload.contains("\"sub\"")) {
-                return payload.split("\"sub\":\"")[1].split("\"")[0];
+    private static String firstText(JsonNode payload, String... claims) {
+        for (String claim : claims) {
+            JsonNode value = payload.get(claim);
+            if (value != null && value.isTextual()) {
+                return value.asText();
             }
-            if (payload.contains("\"preferred_username\"")) {
-                return payload.split("\"preferred_username\":\"")[1].split("\"")[0];
-            }
-
-            return "unknown";
-        } catch (Exception e) {
-            return "unknown";
         }
+        return "unknown";
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class LocalJwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalJwtVerifier.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PublicKey chavePadrao;
+    private final Map<String, PublicKey> chavesPorKid;
+    private final JwtParser parser;
+
+    public LocalJwtVerifier(JwtVerificationProperties properties) {
+        this.chavePadrao = StringUtils.hasText(properties.getPublicKey())
+                ? lerChavePem(properties.getPublicKey())
+                : null;
+        this.chavesPorKid = properties.getJwksFile() != null
+                ? lerJwks(properties.getJwksFile())
+                : Map.of();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new ResolvedorDeChave())
+                .setAllowedClockSkewSeconds(properties.getClockSkew().toSeconds())
+                .build();
+
+        if (properties.getMode() == JwtVerificationProperties.Mode.LOCAL && !possuiChaves()) {
+            logger.warn("Validação local de JWT ativa, mas nenhuma chave pública foi configurada");
+        }
+    }
+
+    public boolean possuiChaves() {
+        return chavePadrao != null || !chavesPorKid.isEmpty();
+    }
+
+    /**
+     * Retorna vazio quando o token foi assinado com uma chave que não conhecemos localmente,
+     * para que o chamador decida se recorre ao serviço de autenticação.
+     */
+    public Optional<Claims> verificar(String token) {
+        String jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
+
+        try {
+            return Optional.of(parser.parseClaimsJws(jwt).getBody());
+        } catch (ChaveDesconhecidaException e) {
+            logger.debug("Token assinado com chave desconhecida: {}", e.getMessage());
+            return Optional.empty();
+        } catch (ExpiredJwtException e) {
+            throw new JwtValidationException("Token expirado");
+        } catch (PrematureJwtException e) {
+            throw new JwtValidationException("Token ainda não é válido");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new JwtValidationException("Token inválido: " + e.getMessage());
+        }
+    }
+
+    private class ResolvedorDeChave extends SigningKeyResolverAdapter {
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String kid = header.getKeyId();
+            if (kid != null && chavesPorKid.containsKey(kid)) {
+                return chavesPorKid.get(kid);
+            }
+            if (chavePadrao != null) {
+                return chavePadrao;
+            }
+            if (kid == null && chavesPorKid.size() == 1) {
+                return chavesPorKid.values().iterator().next();
+            }
+            throw new ChaveDesconhecidaException(kid == null ? "token sem kid" : "kid " + kid);
+        }
+    }
+
+    private static PublicKey lerChavePem(String pem) {
+        String base64 = pem
+                .replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(Base64.getDecoder().decode(base64));
+
+        for (String algoritmo : new String[]{"RSA", "EC"}) {
+            try {
+                return KeyFactory.getInstance(algoritmo).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                logger.trace("Chave pública não é {}", algoritmo);
+            }
+        }
+        throw new IllegalStateException("auth.jwt.public-key não contém uma chave RSA ou EC válida");
+    }
+
+    private static Map<String, PublicKey> lerJwks(Resource jwksFile) {
+        Map<String, PublicKey> chaves = new HashMap<>();
+
+        try (InputStream in = jwksFile.getInputStream()) {
+            JsonNode keys = objectMapper.readTree(in).path("keys");
+            for (JsonNode jwk : keys) {
+                if (jwk.hasNonNull("use") && !"sig".equals(jwk.get("use").asText())) {
+                    continue;
+                }
+                String kid = jwk.path("kid").asText("");
+                chaves.put(kid, lerJwk(jwk));
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível carregar o JWKS em " + jwksFile.getDescription(), e);
+        }
+
+        logger.info("{} chave(s) carregada(s) de {}", chaves.size(), jwksFile.getDescription());
+        return chaves;
+    }
+
+    private static PublicKey lerJwk(JsonNode jwk) throws GeneralSecurityException {
+        String kty = jwk.path("kty").asText();
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+
+        switch (kty) {
+            case "RSA" -> {
+                BigInteger modulus = new BigInteger(1, decoder.decode(jwk.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, decoder.decode(jwk.path("e").asText()));
+                return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+            }
+            case "EC" -> {
+                AlgorithmParameters parametros = AlgorithmParameters.getInstance("EC");
+                parametros.init(new ECGenParameterSpec(nomeCurva(jwk.path("crv").asText())));
+                ECPoint ponto = new ECPoint(
+                        new BigInteger(1, decoder.decode(jwk.path("x").asText())),
+                        new BigInteger(1, decoder.decode(jwk.path("y").asText())));
+                return KeyFactory.getInstance("EC").generatePublic(
+                        new ECPublicKeySpec(ponto, parametros.getParameterSpec(ECParameterSpec.class)));
+            }
+            default -> throw new GeneralSecurityException("Tipo de chave JWK não suportado: " + kty);
+        }
+    }
+
+    private static String nomeCurva(String crv) throws GeneralSecurityException {
+        return switch (crv) {
+            case "P-256" -> "secp256r1";
+            case "P-384" -> "secp384r1";
+            case "P-521" -> "secp521r1";
+            default -> throw new GeneralSecurityException("Curva JWK não suportada: " + crv);
+        };
+    }
+
+    private static class ChaveDesconhecidaException extends RuntimeException {
+        ChaveDesconhecidaException(String message) {
+            super(message);
+        }
+    }
+}
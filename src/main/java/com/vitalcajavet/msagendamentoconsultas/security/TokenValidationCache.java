@@ -0,0 +1,99 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Component
+public class TokenValidationCache {
+
+    private final TokenCacheProperties properties;
+    private final Clock relogio;
+    private final Cache<String, Duration> cache;
+
+    @Autowired
+    public TokenValidationCache(TokenCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    // O relógio compara com a expiração do token; o ticker conta o tempo de vida das entradas.
+    TokenValidationCache(TokenCacheProperties properties, MeterRegistry meterRegistry, Clock relogio, Ticker ticker) {
+        this.properties = properties;
+        this.relogio = relogio;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new ExpiraNaValidade())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.token-validation");
+    }
+
+    public boolean isValid(String token) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        return cache.getIfPresent(hash(token)) != null;
+    }
+
+    public void registrarValido(String token, Optional<Instant> expiracaoToken) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Duration validade = properties.getTtl();
+        if (expiracaoToken.isPresent()) {
+            Duration ateExpirar = Duration.between(relogio.instant(), expiracaoToken.get());
+            if (ateExpirar.compareTo(validade) < 0) {
+                validade = ateExpirar;
+            }
+        }
+
+        if (validade.isPositive()) {
+            cache.put(hash(token), validade);
+        }
+    }
+
+    static String hash(String token) {
+        String jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static final class ExpiraNaValidade implements Expiry<String, Duration> {
+
+        @Override
+        public long expireAfterCreate(String chave, Duration validade, long currentTime) {
+            return validade.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, Duration validade, long currentTime, long currentDuration) {
+            return validade.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String chave, Duration validade, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
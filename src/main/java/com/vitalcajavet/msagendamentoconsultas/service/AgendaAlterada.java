@@ -0,0 +1,21 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publicado dentro da transação que altera consultas; o {@link AgendaCache} só descarta os dias depois do commit.
+ */
+public record AgendaAlterada(Set<LocalDate> dias) {
+
+    public static AgendaAlterada nos(LocalDateTime... horarios) {
+        return new AgendaAlterada(Arrays.stream(horarios)
+                .filter(Objects::nonNull)
+                .map(LocalDateTime::toLocalDate)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitalcajavet.msagendamentoconsultas.config.AgendaCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Consultas de hoje e dos próximos {@code app.cache.agenda.dias} dias, uma entrada por dia. As entradas são
+ * carregadas no primário e descartadas depois do commit de qualquer escrita que toque o dia
+ * ({@link AgendaAlterada}); como em {@link VeterinarioCache}, a carga roda em {@link CargaNoChamador} e uma
+ * invalidação concorrente com ela descarta o resultado. O peso de cada dia é o número de consultas, limitado por
+ * {@code app.cache.agenda.maximo-consultas}.
+ */
+@Component
+public class AgendaCache {
+
+    private static final Comparator<ConsultaResponseDTO> ORDEM =
+            Comparator.comparing(ConsultaResponseDTO::getDataHora).thenComparing(ConsultaResponseDTO::getId);
+
+    private final AgendaCacheProperties properties;
+    private final ConsultaRepository consultaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncCache<LocalDate, List<ConsultaResponseDTO>> porDia;
+
+    public AgendaCache(AgendaCacheProperties properties,
+                       ConsultaRepository consultaRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.consultaRepository = consultaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.porDia = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximoConsultas())
+                .<LocalDate, List<ConsultaResponseDTO>>weigher((dia, consultas) -> consultas.size() + 1)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, porDia.synchronous(), "consultas.agenda");
+    }
+
+    public List<ConsultaResponseDTO> doDia(LocalDate dia) {
+        if (!properties.isEnabled() || !dentroDoHorizonte(dia)) {
+            return copiar(carregar(dia));
+        }
+        return copiar(CargaNoChamador.obter(porDia, dia, this::carregar));
+    }
+
+    /**
+     * Até {@code quantidade} consultas agendadas a partir de {@code agora}, depois do cursor. Vazio quando o
+     * horizonte em cache não basta para completar a página e a leitura precisa ir ao banco.
+     */
+    public Optional<List<ConsultaResponseDTO>> futuras(LocalDateTime agora, CursorPagina cursor, int quantidade) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        List<ConsultaResponseDTO> pagina = new ArrayList<>(quantidade);
+        LocalDate primeiroDia = cursor.dataHora().toLocalDate().isAfter(agora.toLocalDate())
+                ? cursor.dataHora().toLocalDate()
+                : agora.toLocalDate();
+
+        for (LocalDate dia = primeiroDia; dentroDoHorizonte(dia); dia = dia.plusDays(1)) {
+            for (ConsultaResponseDTO consulta : CargaNoChamador.obter(porDia, dia, this::carregar)) {
+                if (consulta.getStatus() == StatusConsulta.AGENDADA
+                        && !consulta.getDataHora().isBefore(agora)
+                        && depoisDoCursor(consulta, cursor)) {
+                    pagina.add(consulta);
+                    if (pagina.size() == quantidade) {
+                        return Optional.of(copiar(pagina));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarAgenda(AgendaAlterada evento) {
+        porDia.synchronous().invalidateAll(evento.dias());
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void virarDia() {
+        LocalDate hoje = LocalDate.now();
+        porDia.asMap().keySet().removeIf(dia -> dia.isBefore(hoje));
+    }
+
+    Set<LocalDate> diasEmCache() {
+        return Set.copyOf(porDia.asMap().keySet());
+    }
+
+    private boolean dentroDoHorizonte(LocalDate dia) {
+        LocalDate hoje = LocalDate.now();
+        return !dia.isBefore(hoje) && !dia.isAfter(hoje.plusDays(properties.getDias()));
+    }
+
+    private List<ConsultaResponseDTO> carregar(LocalDate dia) {
+        List<ConsultaResponseDTO> consultas = transactionTemplate.execute(status ->
+                consultaRepository.findConsultasDeHoje(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay()));
+        return consultas.stream().sorted(ORDEM).toList();
+    }
+
+    private static boolean depoisDoCursor(ConsultaResponseDTO consulta, CursorPagina cursor) {
+        int comparacao = consulta.getDataHora().compareTo(cursor.dataHora());
+        return comparacao > 0 || (comparacao == 0 && consulta.getId() > cursor.id());
+    }
+
+    // Os nomes são preenchidos sobre a resposta; a entrada em cache continua com os provisórios.
+    private static List<ConsultaResponseDTO> copiar(List<ConsultaResponseDTO> consultas) {
+        return consultas.stream()
+                .map(c -> new ConsultaResponseDTO(c.getId(), c.getAnimalId(), c.getVeterinarioId(), c.getDataHora(),
+                        c.getTipo(), c.getStatus(), c.getCreatedAt(), c.getUpdatedAt(), c.getVersion()))
+                .toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Leitura de um {@link AsyncCache} em que a carga roda na thread de quem pediu, na transação dela e fora do
+ * {@code synchronized} do mapa interno do Caffeine: com virtual threads, uma ida ao banco dentro de
+ * {@code Cache#get(chave, carga)} prenderia a carrier thread. Só quem registra a carga a executa; os demais
+ * esperam pelo mesmo future. Invalidar a chave remove a carga em andamento, e o valor dela não entra no cache.
+ */
+final class CargaNoChamador {
+
+    private CargaNoChamador() {
+    }
+
+    static <K, V> V obter(AsyncCache<K, V> cache, K chave, Function<K, V> carregar) {
+        CompletableFuture<V> emCache = cache.getIfPresent(chave);
+        if (emCache != null) {
+            return esperar(emCache);
+        }
+
+        CompletableFuture<V> carga = new CompletableFuture<>();
+        CompletableFuture<V> concorrente = cache.asMap().putIfAbsent(chave, carga);
+        if (concorrente != null) {
+            return esperar(concorrente);
+        }
+
+        try {
+            V valor = carregar.apply(chave);
+            carga.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            carga.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V esperar(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.FormatoExportacao;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaExportacaoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+public class ConsultaExportacaoService {
+
+    private static final String CABECALHO_CSV =
+            "id,animalId,nomeAnimal,veterinarioId,nomeVeterinario,dataHora,tipo,status,createdAt,updatedAt";
+
+    private final ConsultaExportacaoRepository exportacaoRepository;
+    private final NomesAnimais nomesAnimais;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter linhaJson;
+
+    public ConsultaExportacaoService(ConsultaExportacaoRepository exportacaoRepository,
+                                     NomesAnimais nomesAnimais,
+                                     ObjectMapper objectMapper) {
+        this.exportacaoRepository = exportacaoRepository;
+        this.nomesAnimais = nomesAnimais;
+        this.objectMapper = objectMapper;
+        this.linhaJson = objectMapper.writerFor(ConsultaResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new BadRequestException("O início do período deve ser anterior ao fim");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportar(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                         FormatoExportacao formato, OutputStream saida) throws IOException {
+        validarPeriodo(inicio, fim);
+
+        return switch (formato) {
+            case NDJSON -> exportarNdjson(inicio, fim, status, saida);
+            case CSV -> exportarCsv(inicio, fim, status, saida);
+        };
+    }
+
+    private long exportarNdjson(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                                OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return percorrer(inicio, fim, status, consulta -> {
+                try {
+                    linhaJson.writeValue(gerador, consulta);
+                    gerador.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private long exportarCsv(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                             OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write(CABECALHO_CSV);
+        writer.write('\n');
+
+        long linhas = percorrer(inicio, fim, status, consulta -> {
+            try {
+                writer.write(linhaCsv(consulta));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+        return linhas;
+    }
+
+    // As linhas saem em blocos do tamanho de uma chamada ao serviço de animais, que preenche os nomes do bloco;
+    // a memória usada continua limitada pelo bloco, não pelo período.
+    private long percorrer(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                           Consumer<ConsultaResponseDTO> escrever) throws IOException {
+        int tamanhoBloco = nomesAnimais.getTamanhoBloco();
+        List<ConsultaResponseDTO> bloco = new ArrayList<>(tamanhoBloco);
+        long[] linhas = {0};
+        try {
+            exportacaoRepository.percorrerPorPeriodo(inicio, fim, status, consulta -> {
+                bloco.add(consulta);
+                if (bloco.size() == tamanhoBloco) {
+                    linhas[0] += escreverBloco(bloco, escrever);
+                }
+            });
+            linhas[0] += escreverBloco(bloco, escrever);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return linhas[0];
+    }
+
+    private int escreverBloco(List<ConsultaResponseDTO> bloco, Consumer<ConsultaResponseDTO> escrever) {
+        Map<Long, String> nomes = nomesAnimais.buscar(
+                bloco.stream().map(ConsultaResponseDTO::getAnimalId).collect(Collectors.toSet()));
+        for (ConsultaResponseDTO consulta : bloco) {
+            String nomeAnimal = nomes.get(consulta.getAnimalId());
+            if (nomeAnimal != null) {
+                consulta.setNomeAnimal(nomeAnimal);
+            }
+            escrever.accept(consulta);
+        }
+        int escritas = bloco.size();
+        bloco.clear();
+        return escritas;
+    }
+
+    private String linhaCsv(ConsultaResponseDTO consulta) {
+        return String.join(",",
+                String.valueOf(consulta.getId()),
+                String.valueOf(consulta.getAnimalId()),
+                campoCsv(consulta.getNomeAnimal()),
+                String.valueOf(consulta.getVeterinarioId()),
+                campoCsv(consulta.getNomeVeterinario()),
+                String.valueOf(consulta.getDataHora()),
+                consulta.getTipo().name(),
+                consulta.getStatus().name(),
+                consulta.getCreatedAt() != null ? consulta.getCreatedAt().toString() : "",
+                consulta.getUpdatedAt() != null ? consulta.getUpdatedAt().toString() : "");
+    }
+
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,270 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.config.HorarioComercialProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.LoteProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ModoLote;
+import com.vitalcajavet.msagendamentoconsultas.dto.ResultadoItemLoteDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaRepository;
+import com.vitalcajavet.msagendamentoconsultas.repository.HorarioOcupado;
+import com.vitalcajavet.msagendamentoconsultas.repository.VeterinarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class ConsultaLoteService {
+
+    private static final String MENSAGEM_HORARIO_TOMADO_DURANTE_O_LOTE =
+            ConsultaService.MENSAGEM_HORARIO_OCUPADO + " (agendado por outra requisição durante o lote)";
+
+    private final ConsultaRepository consultaRepository;
+    private final VeterinarioRepository veterinarioRepository;
+    private final HorarioComercialProperties horarioComercialProperties;
+    private final LoteProperties loteProperties;
+    private final TravasPorVeterinario travasPorVeterinario;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ConsultaLoteService(ConsultaRepository consultaRepository,
+                               VeterinarioRepository veterinarioRepository,
+                               HorarioComercialProperties horarioComercialProperties,
+                               LoteProperties loteProperties,
+                               TravasPorVeterinario travasPorVeterinario,
+                               Validator validator,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
+        this.consultaRepository = consultaRepository;
+        this.veterinarioRepository = veterinarioRepository;
+        this.horarioComercialProperties = horarioComercialProperties;
+        this.loteProperties = loteProperties;
+        this.travasPorVeterinario = travasPorVeterinario;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public LoteConsultasResponseDTO agendarLote(LoteConsultasRequestDTO request) {
+        List<ConsultaRequestDTO> itens = request.getConsultas();
+        if (itens.size() > loteProperties.getTamanhoMaximo()) {
+            throw new BadRequestException("O lote aceita no máximo " + loteProperties.getTamanhoMaximo() + " consultas");
+        }
+
+        ResultadoItemLoteDTO[] resultados = new ResultadoItemLoteDTO[itens.size()];
+        validarItens(itens, resultados);
+        validarVeterinarios(itens, resultados);
+        rejeitarDuplicadosNoLote(itens, resultados);
+
+        if (deveAbortar(request.getModo(), resultados) || pendentes(resultados).isEmpty()) {
+            return responder(request.getModo(), resultados);
+        }
+
+        Set<Long> veterinarioIds = pendentes(resultados).stream()
+                .map(i -> itens.get(i).getVeterinarioId())
+                .collect(Collectors.toSet());
+
+        try {
+            return travasPorVeterinario.executar(veterinarioIds, () -> transactionTemplate.execute(status -> {
+                rejeitarConflitosNoBanco(itens, resultados);
+
+                if (deveAbortar(request.getModo(), resultados)) {
+                    return responder(request.getModo(), resultados);
+                }
+
+                persistir(itens, resultados);
+                return responder(request.getModo(), resultados);
+            }));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConsultaService.violouHorarioUnico(e)) {
+                throw e;
+            }
+            if (request.getModo() == ModoLote.TUDO_OU_NADA) {
+                throw new ConflictException(MENSAGEM_HORARIO_TOMADO_DURANTE_O_LOTE);
+            }
+            // Outra requisição gravou um dos horários entre a checagem e o flush e a transação do lote foi
+            // desfeita inteira. No melhor esforço os pendentes são gravados um a um, e só quem colidir fica com 409.
+            return travasPorVeterinario.executar(veterinarioIds, () -> {
+                persistirUmAUm(itens, resultados);
+                return responder(request.getModo(), resultados);
+            });
+        }
+    }
+
+    private void validarItens(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        for (int i = 0; i < itens.size(); i++) {
+            ConsultaRequestDTO item = itens.get(i);
+            if (item == null) {
+                rejeitar(resultados, i, HttpStatus.BAD_REQUEST, "Consulta vazia");
+                continue;
+            }
+
+            Set<ConstraintViolation<ConsultaRequestDTO>> violacoes = validator.validate(item);
+            if (!violacoes.isEmpty()) {
+                rejeitar(resultados, i, HttpStatus.BAD_REQUEST, violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            if (!horarioComercialProperties.dentroDoExpediente(item.getDataHora())) {
+                rejeitar(resultados, i, HttpStatus.BAD_REQUEST, horarioComercialProperties.descricaoExpediente());
+            }
+        }
+    }
+
+    private void validarVeterinarios(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        List<Integer> pendentes = pendentes(resultados);
+        Set<Long> ids = pendentes.stream()
+                .map(i -> itens.get(i).getVeterinarioId())
+                .collect(Collectors.toSet());
+        Map<Long, Veterinario> veterinarios = transactionTemplate.execute(status -> veterinarioRepository.findAllById(ids))
+                .stream()
+                .collect(Collectors.toMap(Veterinario::getId, Function.identity()));
+
+        for (int i : pendentes) {
+            Veterinario veterinario = veterinarios.get(itens.get(i).getVeterinarioId());
+            if (veterinario == null) {
+                rejeitar(resultados, i, HttpStatus.NOT_FOUND, "Veterinario nao encontrado");
+            } else if (Boolean.FALSE.equals(veterinario.getAtivo())) {
+                rejeitar(resultados, i, HttpStatus.BAD_REQUEST, "Veterinario nao esta ativo");
+            }
+        }
+    }
+
+    private void rejeitarDuplicadosNoLote(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        Map<HorarioOcupado, Integer> primeiros = new HashMap<>();
+        for (int i : pendentes(resultados)) {
+            Integer primeiro = primeiros.putIfAbsent(horarioDe(itens.get(i)), i);
+            if (primeiro != null) {
+                rejeitar(resultados, i, HttpStatus.CONFLICT,
+                        "Horario repetido no lote (mesmo veterinario e horario do item " + primeiro + ")");
+            }
+        }
+    }
+
+    private void rejeitarConflitosNoBanco(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        List<Integer> pendentes = pendentes(resultados);
+        Set<Long> veterinarioIds = new HashSet<>();
+        Set<LocalDateTime> horarios = new HashSet<>();
+        for (int i : pendentes) {
+            veterinarioIds.add(itens.get(i).getVeterinarioId());
+            horarios.add(itens.get(i).getDataHora());
+        }
+
+        Set<HorarioOcupado> ocupados = new HashSet<>(
+                consultaRepository.findHorariosOcupadosEntre(veterinarioIds, horarios));
+
+        for (int i : pendentes) {
+            if (ocupados.contains(horarioDe(itens.get(i)))) {
+                rejeitar(resultados, i, HttpStatus.CONFLICT, ConsultaService.MENSAGEM_HORARIO_OCUPADO);
+            }
+        }
+    }
+
+    private void persistir(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        List<Integer> pendentes = pendentes(resultados);
+        List<Consulta> consultas = new ArrayList<>(pendentes.size());
+        for (int i : pendentes) {
+            consultas.add(novaConsulta(itens.get(i)));
+        }
+
+        List<Consulta> salvas = consultaRepository.saveAll(consultas);
+        consultaRepository.flush();
+        eventPublisher.publishEvent(AgendaAlterada.nos(salvas.stream()
+                .map(Consulta::getDataHora)
+                .toArray(LocalDateTime[]::new)));
+
+        for (int k = 0; k < pendentes.size(); k++) {
+            resultados[pendentes.get(k)] = new ResultadoItemLoteDTO(
+                    pendentes.get(k), HttpStatus.CREATED.value(), salvas.get(k).getId(), null);
+        }
+    }
+
+    private void persistirUmAUm(List<ConsultaRequestDTO> itens, ResultadoItemLoteDTO[] resultados) {
+        List<LocalDateTime> gravados = new ArrayList<>();
+        for (int i : pendentes(resultados)) {
+            ConsultaRequestDTO item = itens.get(i);
+            try {
+                Consulta salva = transactionTemplate.execute(status -> consultaRepository.saveAndFlush(novaConsulta(item)));
+                resultados[i] = new ResultadoItemLoteDTO(i, HttpStatus.CREATED.value(), salva.getId(), null);
+                gravados.add(salva.getDataHora());
+            } catch (DataIntegrityViolationException e) {
+                if (!ConsultaService.violouHorarioUnico(e)) {
+                    throw e;
+                }
+                rejeitar(resultados, i, HttpStatus.CONFLICT, MENSAGEM_HORARIO_TOMADO_DURANTE_O_LOTE);
+            }
+        }
+        if (!gravados.isEmpty()) {
+            eventPublisher.publishEvent(AgendaAlterada.nos(gravados.toArray(LocalDateTime[]::new)));
+        }
+    }
+
+    private Consulta novaConsulta(ConsultaRequestDTO item) {
+        Consulta consulta = new Consulta();
+        consulta.setAnimalId(item.getAnimalId());
+        consulta.setVeterinarioId(item.getVeterinarioId());
+        consulta.setDataHora(item.getDataHora());
+        consulta.setTipo(item.getTipo());
+        consulta.setStatus(StatusConsulta.AGENDADA);
+        return consulta;
+    }
+
+    private boolean deveAbortar(ModoLote modo, ResultadoItemLoteDTO[] resultados) {
+        return modo == ModoLote.TUDO_OU_NADA && Arrays.stream(resultados).anyMatch(Objects::nonNull);
+    }
+
+    private LoteConsultasResponseDTO responder(ModoLote modo, ResultadoItemLoteDTO[] resultados) {
+        for (int i : pendentes(resultados)) {
+            rejeitar(resultados, i, HttpStatus.FAILED_DEPENDENCY, "Lote cancelado por erro em outro item");
+        }
+
+        int agendadas = (int) Arrays.stream(resultados)
+                .filter(r -> r.getStatus() == HttpStatus.CREATED.value())
+                .count();
+        return new LoteConsultasResponseDTO(modo, resultados.length, agendadas,
+                resultados.length - agendadas, Arrays.asList(resultados));
+    }
+
+    private List<Integer> pendentes(ResultadoItemLoteDTO[] resultados) {
+        return IntStream.range(0, resultados.length)
+                .filter(i -> resultados[i] == null)
+                .boxed()
+                .toList();
+    }
+
+    private void rejeitar(ResultadoItemLoteDTO[] resultados, int indice, HttpStatus status, String erro) {
+        resultados[indice] = new ResultadoItemLoteDTO(indice, status.value(), null, erro);
+    }
+
+    private HorarioOcupado horarioDe(ConsultaRequestDTO item) {
+        return new HorarioOcupado(item.getVeterinarioId(), item.getDataHora());
+    }
+}
@@ -2,250 +2,391 @@ package com.vitalcajavet.msagendamentoconsultas.service;
 
 import com.vitalcajavet.msagendamentoconsultas.config.HorarioComercialProperties;
 import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
 import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelRequestDTO;
 import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.Pagina;
 import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
 import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
 import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
 import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaRepository;
+import com.vitalcajavet.msagendamentoconsultas.repository.TransicaoConsultaRepository;
+import com.vitalcajavet.msagendamentoconsultas.repository.TransicaoConsultaRepository.ResultadoTransicao;
+import com.vitalcajavet.msagendamentoconsultas.repository.VersaoConsulta;
 import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
 import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
 import com.vitalcajavet.msagendamentoconsultas.exception.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class ConsultaService {
 
+    private static final String INDICE_HORARIO_UNICO = "uk_consultas_veterinario_data_hora_ativas";
+    static final String MENSAGEM_HORARIO_OCUPADO =
+            "Ja existe uma consulta agendada para este veterinario no mesmo horario";
+
     private final ConsultaRepository consultaRepository;
     private final VeterinarioService veterinarioService;
     private final HorarioComercialProperties horarioComercialProperties;
+    private final TransicaoConsultaRepository transicaoRepository;
+    private final TravasPorVeterinario travasPorVeterinario;
+    private final RetentativaOtimista retentativaOtimista;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leituraTemplate;
+    private final AgendaCache agendaCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasConsulta metricas;
 
     public ConsultaService(ConsultaRepository consultaRepository,
+                           TransicaoConsultaRepository transicaoRepository,
                            VeterinarioService veterinarioService,
-                           HorarioComercialProperties horarioComercialProperties) {
+                           HorarioComercialProperties horarioComercialProperties,
+                           TravasPorVeterinario travasPorVeterinario,
+                           RetentativaOtimista retentativaOtimista,
+                           PlatformTransactionManager transactionManager,
+                           AgendaCache agendaCache,
+                           ApplicationEventPublisher eventPublisher,
+                           MetricasConsulta metricas) {
         this.consultaRepository = consultaRepository;
+        this.transicaoRepository = transicaoRepository;
         this.veterinarioService = veterinarioService;
         this.horarioComercialProperties = horarioComercialProperties;
+        this.travasPorVeterinario = travasPorVeterinario;
+        this.retentativaOtimista = retentativaOtimista;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leituraTemplate = new TransactionTemplate(transactionManager);
+        this.leituraTemplate.setReadOnly(true);
+        this.agendaCache = agendaCache;
+        this.eventPublisher = eventPublisher;
+        this.metricas = metricas;
     }
 
-    @Transactional
     public Consulta agendarConsulta(ConsultaRequestDTO requestDTO) {
-        validarDadosAgendamento(requestDTO, null);
+        return metricas.medir("agendar", () -> alterarAgenda("agendar", requestDTO.getVeterinarioId(), () -> {
+            validarDadosAgendamento(requestDTO, null);
+
+            Consulta consulta = new Consulta();
+            consulta.setAnimalId(requestDTO.getAnimalId());
+            consulta.setVeterinarioId(requestDTO.getVeterinarioId());
+            consulta.setDataHora(requestDTO.getDataHora());
+            consulta.setTipo(requestDTO.getTipo());
+            consulta.setStatus(StatusConsulta.AGENDADA);
+
+            Consulta salva = consultaRepository.save(consulta);
+            eventPublisher.publishEvent(AgendaAlterada.nos(salva.getDataHora()));
+            return salva;
+        }));
+    }
 
-        Consulta consulta = new Consulta();
-        consulta.setAnimalId(requestDTO.getAnimalId());
-        consulta.setVeterinarioId(requestDTO.getVeterinarioId());
-        consulta.setDataHora(requestDTO.getDataHora());
-        consulta.setTipo(requestDTO.getTipo());
-        consulta.setStatus(StatusConsulta.AGENDADA);
+    private Consulta alterarAgenda(String operacao, Long veterinarioId, Supplier<Consulta> alteracao) {
+        try {
+            return travasPorVeterinario.executar(veterinarioId,
+                    () -> transactionTemplate.execute(status -> alteracao.get()));
+        } catch (DataIntegrityViolationException e) {
+            if (violouHorarioUnico(e)) {
+                throw metricas.recusa(operacao, "horario_ocupado_concorrente",
+                        new ConflictException(MENSAGEM_HORARIO_OCUPADO));
+            }
+            throw e;
+        }
+    }
 
-        return consultaRepository.save(consulta);
+    static boolean violouHorarioUnico(DataIntegrityViolationException e) {
+        String causa = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return causa != null && causa.contains(INDICE_HORARIO_UNICO);
     }
 
     private void validarDadosAgendamento(ConsultaRequestDTO requestDTO, Long consultaIdIgnorada) {
+        String operacao = consultaIdIgnorada == null ? "agendar" : "atualizar";
+
         Veterinario veterinario = veterinarioService.findById(requestDTO.getVeterinarioId())
-                .orElseThrow(() -> new NotFoundException("Veterinario nao encontrado"));
+                .orElseThrow(() -> metricas.recusa(operacao, "veterinario_inexistente",
+                        new NotFoundException("Veterinario nao encontrado")));
 
         if (Boolean.FALSE.equals(veterinario.getAtivo())) {
-            throw new BadRequestException("Veterinario nao esta ativo");
+            throw metricas.recusa(operacao, "veterinario_inativo", new BadRequestException("Veterinario nao esta ativo"));
         }
 
         if (requestDTO.getDataHora().isBefore(LocalDateTime.now())) {
-            throw new BadRequestException("Nao e possivel agendar consultas no passado");
+            throw metricas.recusa(operacao, "data_passada",
+                    new BadRequestException("Nao e possivel agendar consultas no passado"));
         }
 
-        if (encontrarHorarioConflitante(consultaIdIgnorada, requestDTO.getVeterinarioId(), requestDTO.getDataHora()).isPresent()) {
-            throw new ConflictException("Ja existe uma consulta agendada para este veterinario no mesmo horario");
+        if (existeConflito(consultaIdIgnorada, requestDTO.getVeterinarioId(), requestDTO.getDataHora())) {
+            throw metricas.recusa(operacao, "horario_ocupado", new ConflictException(MENSAGEM_HORARIO_OCUPADO));
         }
 
-        validarHorarioComercial(requestDTO.getDataHora());
-    }
-
-    private void validarHorarioComercial(LocalDateTime dataHora) {
-        LocalTime horario = dataHora.toLocalTime();
-        LocalTime inicioExpediente = LocalTime.of(horarioComercialProperties.getInicio(), 0);
-        LocalTime fimExpediente = LocalTime.of(horarioComercialProperties.getFim(), 0);
-
-        if (horario.isBefore(inicioExpediente) || horario.isAfter(fimExpediente)) {
-            throw new RuntimeException("Horário fora do expediente comercial ("
-                    + horarioComercialProperties.getInicio() + ":00 às "
-                    + horarioComercialProperties.getFim() + ":00)");
-        }
-
-        if (false) {
-            throw new RuntimeException("Os horários devem ser marcados em intervalos de "
-                    + " minutos (ex: 08:00, 08:30, 09:00)");
+        if (!horarioComercialProperties.dentroDoExpediente(requestDTO.getDataHora())) {
+            throw metricas.recusa(operacao, "fora_do_expediente",
+                    new BadRequestException(horarioComercialProperties.descricaoExpediente()));
         }
     }
 
-    @Transactional
     public Consulta cancelarConsulta(Long id) {
-        Consulta consulta = consultaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Consulta não encontrada"));
+        return metricas.medir("cancelar", () -> cancelar(id));
+    }
 
-        if (!consultaRepository.podeSerCancelada(id, LocalDateTime.now())) {
-            throw new RuntimeException("Cancelamento permitido apenas com "
-                    + horarioComercialProperties.getHorasMinimasCancelamento() + " horas de antecedência");
-        }
+    private Consulta cancelar(Long id) {
+        LocalDateTime prazo = LocalDateTime.now().plusHours(horarioComercialProperties.getHorasMinimasCancelamento());
+        ResultadoTransicao resultado = transicaoRepository
+                .transicionar(id, StatusConsulta.AGENDADA, StatusConsulta.CANCELADA, prazo)
+                .orElseThrow(() -> metricas.recusa("cancelar", "consulta_inexistente",
+                        new NotFoundException("Consulta não encontrada")));
 
-        if (consulta.getStatus() == StatusConsulta.CANCELADA) {
-            throw new RuntimeException("Consulta já está cancelada");
+        if (resultado.aplicada()) {
+            eventPublisher.publishEvent(AgendaAlterada.nos(resultado.consulta().getDataHora()));
+            return resultado.consulta();
         }
 
-        if (consulta.getStatus() == StatusConsulta.REALIZADA) {
-            throw new RuntimeException("Não é possível cancelar uma consulta já realizada");
+        switch (resultado.consulta().getStatus()) {
+            case CANCELADA -> throw metricas.recusa("cancelar", "ja_cancelada",
+                    new ConflictException("Consulta já está cancelada"));
+            case REALIZADA -> throw metricas.recusa("cancelar", "ja_realizada",
+                    new ConflictException("Não é possível cancelar uma consulta já realizada"));
+            default -> {
+                // Ainda agendada e fora do prazo só acontece se outra operação remarcou a consulta no meio.
+                if (resultado.consulta().getDataHora().isAfter(prazo)) {
+                    throw metricas.recusa("cancelar", "alteracao_concorrente",
+                            new ConflictException("A consulta foi alterada por outra operação. Tente novamente"));
+                }
+                throw metricas.recusa("cancelar", "antecedencia_insuficiente",
+                        new BadRequestException("Cancelamento permitido apenas com "
+                                + horarioComercialProperties.getHorasMinimasCancelamento() + " horas de antecedência"));
+            }
         }
+    }
 
-        consulta.setStatus(StatusConsulta.CANCELADA);
-        return consultaRepository.save(consulta);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarTodasConsultas(CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPagina(cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarTodasConsultas() {
-        return consultaRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<ConsultaResponseDTO> buscarPorId(Long id) {
+        return consultaRepository.findRespostaById(id);
     }
 
-    public Optional<Consulta> buscarPorId(Long id) {
-        return consultaRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorVeterinario(Long veterinarioId, CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByVeterinarioId(veterinarioId,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorVeterinario(Long veterinarioId) {
-        return consultaRepository.findByVeterinarioId(veterinarioId);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorAnimal(Long animalId, CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByAnimalId(animalId,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorAnimal(Long animalId) {
-        return consultaRepository.findByAnimalId(animalId);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorStatus(StatusConsulta status, CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByStatus(status,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorStatus(StatusConsulta status) {
-        return consultaRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorTipo(TipoConsulta tipo, CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByTipo(tipo,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorTipo(TipoConsulta tipo) {
-        return consultaRepository.findByTipo(tipo);
+    // Sem @Transactional: o AgendaCache carrega os dias no primário, e só o que passa do horizonte vai à leitura.
+    public Pagina<ConsultaResponseDTO> listarConsultasFuturas(CursorPagina cursor, int limite) {
+        exigirCursorDeConsulta(cursor);
+        LocalDateTime agora = LocalDateTime.now();
+        List<ConsultaResponseDTO> consultas = agendaCache.futuras(agora, cursor, limite + 1)
+                .orElseGet(() -> leituraTemplate.execute(status -> consultaRepository.findPaginaFuturas(agora,
+                        cursor.dataHora(), cursor.id(), limiteComExcedente(limite))));
+        return paginar(consultas, limite);
     }
 
-    public List<Consulta> listarConsultasFuturas() {
-        return consultaRepository.findConsultasFuturas(LocalDateTime.now());
+    public List<ConsultaResponseDTO> listarConsultasDeHoje() {
+        return agendaCache.doDia(LocalDate.now());
     }
 
-    public List<Consulta> listarConsultasDeHoje() {
-        return consultaRepository.findConsultasDeHoje();
+    @Transactional(readOnly = true)
+    public Optional<VersaoConsulta> versaoDaConsulta(Long id) {
+        return consultaRepository.findVersaoById(id);
     }
 
     public HorarioDisponivelResponseDTO listarHorariosDisponiveis(HorarioDisponivelRequestDTO requestDTO) {
+        DisponibilidadeDoDia disponibilidade = calcularDisponibilidade(requestDTO);
+
+        HorarioDisponivelResponseDTO response = new HorarioDisponivelResponseDTO();
+        response.setVeterinarioId(disponibilidade.veterinarioId());
+        response.setNomeVeterinario(disponibilidade.nomeVeterinario());
+        response.setHorariosDisponiveis(disponibilidade.grade().horariosLivres());
+        response.setHorariosOcupados(disponibilidade.horariosOcupados());
+
+        return response;
+    }
+
+    public DisponibilidadeDoDia calcularDisponibilidade(HorarioDisponivelRequestDTO requestDTO) {
+        return metricas.medir("horarios", () -> disponibilidade(requestDTO));
+    }
+
+    private DisponibilidadeDoDia disponibilidade(HorarioDisponivelRequestDTO requestDTO) {
         Veterinario veterinario = veterinarioService.findById(requestDTO.getVeterinarioId())
-                .orElseThrow(() -> new RuntimeException("Veterinário não encontrado"));
+                .orElseThrow(() -> metricas.recusa("horarios", "veterinario_inexistente",
+                        new BadRequestException("Veterinário não encontrado")));
 
         if (Boolean.FALSE.equals(veterinario.getAtivo())) {
-            throw new RuntimeException("Veterinário não está ativo");
+            throw metricas.recusa("horarios", "veterinario_inativo", new BadRequestException("Veterinário não está ativo"));
         }
 
         LocalDate data = requestDTO.getData();
 
         if (data.isBefore(LocalDate.now())) {
-            throw new RuntimeException("Não é possível consultar horários para datas passadas");
+            throw metricas.recusa("horarios", "data_passada",
+                    new BadRequestException("Não é possível consultar horários para datas passadas"));
         }
 
         List<LocalDateTime> horariosOcupados = consultaRepository
                 .findHorariosOcupadosByVeterinarioIdAndData(requestDTO.getVeterinarioId(),
-                        data.atStartOfDay());
+                        data.atStartOfDay(), data.plusDays(1).atStartOfDay());
 
-        List<LocalDateTime> todosHorarios = gerarHorariosDoDia(data);
-
-        List<LocalDateTime> horariosDisponiveis = todosHorarios.stream()
-                .filter(horario -> !horariosOcupados.contains(horario))
-                .filter(horario -> !horario.isBefore(LocalDateTime.now()))
-                .toList();
-
-        HorarioDisponivelResponseDTO response = new HorarioDisponivelResponseDTO();
-        response.setVeterinarioId(requestDTO.getVeterinarioId());
-        response.setNomeVeterinario(veterinario.getNome());
-        response.setHorariosDisponiveis(horariosDisponiveis);
-        response.setHorariosOcupados(horariosOcupados);
+        GradeHorarios grade = montarGradeDoDia(data, horariosOcupados, LocalDateTime.now());
 
-        return response;
+        return new DisponibilidadeDoDia(requestDTO.getVeterinarioId(), veterinario.getNome(),
+                data, grade, horariosOcupados);
     }
 
-    private List<LocalDateTime> gerarHorariosDoDia(LocalDate data) {
-        List<LocalDateTime> horarios = new ArrayList<>();
-        LocalDateTime horarioAtual = data.atTime(horarioComercialProperties.getInicio(), 0);
-        LocalDateTime fimDoDia = data.atTime(horarioComercialProperties.getFim(), 0);
-
-        while (horarioAtual.isBefore(fimDoDia)) {
-            horarios.add(horarioAtual);
-            horarioAtual = horarioAtual.plusMinutes(1);
-        }
-
-        return horarios;
+    private GradeHorarios montarGradeDoDia(LocalDate data, List<LocalDateTime> horariosOcupados, LocalDateTime agora) {
+        GradeHorarios grade = GradeHorarios.doDia(data,
+                horarioComercialProperties.getInicio(), horarioComercialProperties.getFim());
+        horariosOcupados.forEach(grade::marcarOcupado);
+        grade.bloquearAntesDe(agora);
+        return grade;
     }
 
-    @Transactional
     public Consulta atualizarStatus(Long id, StatusConsulta novoStatus) {
-        Consulta consulta = consultaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Consulta não encontrada"));
-
         if (novoStatus == StatusConsulta.CANCELADA) {
-            throw new RuntimeException("Use o endpoint específico para cancelamento");
+            throw new BadRequestException("Use o endpoint específico para cancelamento");
         }
 
-        if (consulta.getStatus() == StatusConsulta.CANCELADA && novoStatus != StatusConsulta.CANCELADA) {
-            throw new RuntimeException("Não é possível reativar uma consulta cancelada");
+        if (novoStatus != StatusConsulta.REALIZADA) {
+            throw new BadRequestException("Transição inválida: uma consulta só pode passar de AGENDADA para REALIZADA");
         }
 
-        consulta.setStatus(novoStatus);
-        return consultaRepository.save(consulta);
-    }
+        ResultadoTransicao resultado = transicaoRepository
+                .transicionar(id, StatusConsulta.AGENDADA, StatusConsulta.REALIZADA, null)
+                .orElseThrow(() -> new NotFoundException("Consulta não encontrada"));
 
-    @Transactional
-    public Consulta atualizarConsulta(Long id, ConsultaRequestDTO requestDTO) {
-        Consulta consulta = consultaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Consulta não encontrada"));
-
-        if (consulta.getStatus() == StatusConsulta.REALIZADA) {
-            throw new RuntimeException("Não é possível alterar uma consulta já realizada");
+        if (resultado.aplicada()) {
+            eventPublisher.publishEvent(AgendaAlterada.nos(resultado.consulta().getDataHora()));
+            return resultado.consulta();
         }
 
-        if (consulta.getStatus() == StatusConsulta.CANCELADA) {
-            throw new RuntimeException("Não é possível alterar uma consulta cancelada");
+        if (resultado.consulta().getStatus() == StatusConsulta.CANCELADA) {
+            throw new ConflictException("Não é possível reativar uma consulta cancelada");
         }
+        if (resultado.consulta().getStatus() == StatusConsulta.AGENDADA) {
+            throw new ConflictException("A consulta foi alterada por outra operação. Tente novamente");
+        }
+        throw new ConflictException("Consulta já está realizada");
+    }
 
-        validarDadosAgendamento(requestDTO, id);
-
-        consulta.setAnimalId(requestDTO.getAnimalId());
-        consulta.setVeterinarioId(requestDTO.getVeterinarioId());
-        consulta.setDataHora(requestDTO.getDataHora());
-        consulta.setTipo(requestDTO.getTipo());
+    public Consulta atualizarConsulta(Long id, ConsultaRequestDTO requestDTO) {
+        Long versaoLida = requestDTO.getVersion();
+        return retentativaOtimista.executar("A consulta", versaoLida, () -> alterarAgenda("atualizar", requestDTO.getVeterinarioId(), () -> {
+            Consulta consulta = consultaRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Consulta não encontrada"));
+            RetentativaOtimista.exigirVersao("A consulta", versaoLida, consulta.getVersion());
+
+            if (consulta.getStatus() == StatusConsulta.REALIZADA) {
+                throw new RuntimeException("Não é possível alterar uma consulta já realizada");
+            }
+
+            if (consulta.getStatus() == StatusConsulta.CANCELADA) {
+                throw new RuntimeException("Não é possível alterar uma consulta cancelada");
+            }
+
+            validarDadosAgendamento(requestDTO, id);
+
+            LocalDateTime dataHoraAnterior = consulta.getDataHora();
+            consulta.setAnimalId(requestDTO.getAnimalId());
+            consulta.setVeterinarioId(requestDTO.getVeterinarioId());
+            consulta.setDataHora(requestDTO.getDataHora());
+            consulta.setTipo(requestDTO.getTipo());
+
+            Consulta salva = consultaRepository.saveAndFlush(consulta);
+            eventPublisher.publishEvent(AgendaAlterada.nos(dataHoraAnterior, salva.getDataHora()));
+            return salva;
+        }));
+    }
 
-        return consultaRepository.save(consulta);
+    // Períodos são [inicio, fim), como em /exportar: uma consulta exatamente em fim fica para o período seguinte.
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorPeriodo(LocalDateTime inicio, LocalDateTime fim,
+                                                      CursorPagina cursor, int limite) {
+        validarPeriodo(inicio, fim);
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByPeriodo(inicio, fim,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return consultaRepository.findByVeterinarioIdAndPeriodo(null, inicio, fim);
+    @Transactional(readOnly = true)
+    public Pagina<ConsultaResponseDTO> listarConsultasPorVeterinarioEPeriodo(Long veterinarioId, LocalDateTime inicio,
+                                                                            LocalDateTime fim, CursorPagina cursor,
+                                                                            int limite) {
+        validarPeriodo(inicio, fim);
+        exigirCursorDeConsulta(cursor);
+        return paginar(consultaRepository.findPaginaByVeterinarioIdAndPeriodo(veterinarioId, inicio, fim,
+                cursor.dataHora(), cursor.id(), limiteComExcedente(limite)), limite);
     }
 
-    public List<Consulta> listarConsultasPorVeterinarioEPeriodo(Long veterinarioId, LocalDateTime inicio, LocalDateTime fim) {
-        return consultaRepository.findByVeterinarioIdAndPeriodo(veterinarioId, inicio, fim);
+    private static void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new BadRequestException("O início do período deve ser anterior ao fim");
+        }
     }
 
+    // Consultada logo antes de agendar: fica no primário para não responder com a réplica atrasada.
+    @Transactional
     public boolean verificarDisponibilidade(Long veterinarioId, LocalDateTime dataHora) {
-        return encontrarHorarioConflitante(null, veterinarioId, dataHora).isEmpty();
+        return !existeConflito(null, veterinarioId, dataHora);
+    }
+
+    private void exigirCursorDeConsulta(CursorPagina cursor) {
+        if (cursor.dataHora() == null) {
+            throw new BadRequestException("Cursor de paginação inválido");
+        }
+    }
+
+    private Pageable limiteComExcedente(int limite) {
+        return PageRequest.of(0, limite + 1);
     }
 
-    private Optional<LocalDateTime> encontrarHorarioConflitante(Long consultaIdIgnorada, Long veterinarioId, LocalDateTime dataHora) {
-        return consultaRepository.findByVeterinarioIdAndData(veterinarioId, dataHora).stream()
-                .filter(consulta -> consultaIdIgnorada == null || !consulta.getId().equals(consultaIdIgnorada))
-                .filter(consulta -> consulta.getDataHora().equals(dataHora))
-                .map(Consulta::getDataHora)
-                .findFirst();
+    private Pagina<ConsultaResponseDTO> paginar(List<ConsultaResponseDTO> consultas, int limite) {
+        return Pagina.de(consultas, limite, c -> new CursorPagina(c.getDataHora(), c.getId()));
+    }
+
+    private boolean existeConflito(Long consultaIdIgnorada, Long veterinarioId, LocalDateTime dataHora) {
+        if (consultaIdIgnorada == null) {
+            return consultaRepository.existsByVeterinarioIdAndDataHora(veterinarioId, dataHora);
+        }
+        return consultaRepository.existsByVeterinarioIdAndDataHoraAndIdNot(veterinarioId, dataHora, consultaIdIgnorada);
     }
 }
 
@@ -0,0 +1,12 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DisponibilidadeDoDia(Long veterinarioId,
+                                   String nomeVeterinario,
+                                   LocalDate data,
+                                   GradeHorarios grade,
+                                   List<LocalDateTime> horariosOcupados) {
+}
@@ -0,0 +1,116 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitalcajavet.msagendamentoconsultas.config.EstatisticasProperties;
+import com.vitalcajavet.msagendamentoconsultas.dto.AgrupamentoTemporal;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemPeriodoDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemVeterinarioDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.EstatisticaConsultaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Contagens para dashboards. O tamanho das respostas depende só do intervalo pedido (limitado por
+ * {@code app.estatisticas.periodo-maximo}) e do {@code limite}, nunca do histórico guardado. Os resultados
+ * ficam em cache por {@code app.estatisticas.cache-ttl}, então podem atrasar esse tempo em relação ao banco.
+ */
+@Service
+public class EstatisticaConsultaService {
+
+    private final EstatisticaConsultaRepository repository;
+    private final EstatisticasProperties properties;
+    private final AsyncCache<ChaveEstatistica, Object> cache;
+
+    public EstatisticaConsultaService(EstatisticaConsultaRepository repository,
+                                      EstatisticasProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "consultas.estatisticas");
+    }
+
+    public List<ContagemDTO> contarPorStatus(LocalDateTime inicio, LocalDateTime fim) {
+        validarPeriodo(inicio, fim);
+        return emCache(new ChaveEstatistica("status", inicio, fim, null, null, 0), () -> {
+            Map<String, Long> totais = repository.contarPorStatus(inicio, fim);
+            return Arrays.stream(StatusConsulta.values())
+                    .map(status -> new ContagemDTO(status.name(), totais.getOrDefault(status.name(), 0L)))
+                    .toList();
+        });
+    }
+
+    public List<ContagemDTO> contarPorTipo(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status) {
+        validarPeriodo(inicio, fim);
+        return emCache(new ChaveEstatistica("tipo", inicio, fim, status, null, 0), () -> {
+            Map<String, Long> totais = repository.contarPorTipo(inicio, fim, status);
+            return Arrays.stream(TipoConsulta.values())
+                    .map(tipo -> new ContagemDTO(tipo.name(), totais.getOrDefault(tipo.name(), 0L)))
+                    .toList();
+        });
+    }
+
+    public List<ContagemVeterinarioDTO> contarPorVeterinario(LocalDateTime inicio, LocalDateTime fim,
+                                                             StatusConsulta status, int limite) {
+        validarPeriodo(inicio, fim);
+        return emCache(new ChaveEstatistica("veterinario", inicio, fim, status, null, limite),
+                () -> repository.contarPorVeterinario(inicio, fim, status, limite));
+    }
+
+    public List<ContagemPeriodoDTO> contarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, StatusConsulta status,
+                                                     AgrupamentoTemporal agrupamento) {
+        validarPeriodo(inicio, fim);
+        return emCache(new ChaveEstatistica("periodo", inicio, fim, status, agrupamento, 0), () -> {
+            Map<LocalDate, Long> totais = repository.contarPorPeriodo(inicio, fim, status, agrupamento);
+            List<ContagemPeriodoDTO> serie = new ArrayList<>();
+            for (LocalDate periodo = agrupamento.inicioDoPeriodo(inicio.toLocalDate());
+                 periodo.atStartOfDay().isBefore(fim);
+                 periodo = agrupamento.proximoPeriodo(periodo)) {
+                serie.add(new ContagemPeriodoDTO(periodo, totais.getOrDefault(periodo, 0L)));
+            }
+            return serie;
+        });
+    }
+
+    private void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new BadRequestException("O início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(inicio, fim).compareTo(properties.getPeriodoMaximo()) > 0) {
+            throw new BadRequestException("O período das estatísticas pode ter no máximo "
+                    + properties.getPeriodoMaximo().toDays() + " dias");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T emCache(ChaveEstatistica chave, Supplier<T> calculo) {
+        if (properties.getCacheTtl().isZero()) {
+            return calculo.get();
+        }
+        // A agregação roda fora do lock do mapa do Caffeine, sem prender a carrier thread de uma virtual thread.
+        return (T) CargaNoChamador.obter(cache, chave, ignorada -> calculo.get());
+    }
+
+    private record ChaveEstatistica(String dimensao, LocalDateTime inicio, LocalDateTime fim,
+                                    StatusConsulta status, AgrupamentoTemporal agrupamento, int limite) {
+    }
+}
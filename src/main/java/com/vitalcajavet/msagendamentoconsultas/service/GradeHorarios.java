@@ -0,0 +1,85 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public final class GradeHorarios {
+
+    private static final long NANOS_POR_MINUTO = 60_000_000_000L;
+
+    private final LocalDateTime origem;
+    private final int totalMinutos;
+    private final BitSet ocupados;
+    private int primeiroMinutoDisponivel;
+
+    private GradeHorarios(LocalDateTime origem, int totalMinutos) {
+        this.origem = origem;
+        this.totalMinutos = totalMinutos;
+        this.ocupados = new BitSet(totalMinutos);
+    }
+
+    public static GradeHorarios doDia(LocalDate data, int horaInicio, int horaFim) {
+        return new GradeHorarios(data.atTime(horaInicio, 0), Math.max(0, (horaFim - horaInicio) * 60));
+    }
+
+    public void marcarOcupado(LocalDateTime horario) {
+        int indice = indiceExato(horario);
+        if (indice >= 0) {
+            ocupados.set(indice);
+        }
+    }
+
+    public void bloquearAntesDe(LocalDateTime instante) {
+        long nanos = Duration.between(origem, instante).toNanos();
+        if (nanos <= 0) {
+            return;
+        }
+        long minutos = (nanos + NANOS_POR_MINUTO - 1) / NANOS_POR_MINUTO;
+        primeiroMinutoDisponivel = (int) Math.min(Math.max(minutos, primeiroMinutoDisponivel), totalMinutos);
+    }
+
+    public BitSet livres() {
+        BitSet livres = new BitSet(totalMinutos);
+        livres.set(primeiroMinutoDisponivel, totalMinutos);
+        livres.andNot(ocupados);
+        return livres;
+    }
+
+    public BitSet ocupados() {
+        return (BitSet) ocupados.clone();
+    }
+
+    public List<LocalDateTime> horariosLivres() {
+        BitSet livres = livres();
+        List<LocalDateTime> horarios = new ArrayList<>(livres.cardinality());
+        for (int i = livres.nextSetBit(0); i >= 0; i = livres.nextSetBit(i + 1)) {
+            horarios.add(origem.plusMinutes(i));
+        }
+        return horarios;
+    }
+
+    public boolean isLivre(LocalDateTime horario) {
+        int indice = indiceExato(horario);
+        return indice >= primeiroMinutoDisponivel && !ocupados.get(indice);
+    }
+
+    public LocalDateTime getOrigem() {
+        return origem;
+    }
+
+    public int getTotalMinutos() {
+        return totalMinutos;
+    }
+
+    private int indiceExato(LocalDateTime horario) {
+        if (horario.getSecond() != 0 || horario.getNano() != 0) {
+            return -1;
+        }
+        long minutos = Duration.between(origem, horario).toMinutes();
+        return minutos >= 0 && minutos < totalMinutos ? (int) minutos : -1;
+    }
+}
@@ -0,0 +1,62 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Métricas das operações de agenda. As tags recebem apenas valores fixos do código (operação, resultado e
+ * motivo), nunca ids, datas ou mensagens, para manter baixa a cardinalidade das séries.
+ */
+@Component
+public class MetricasConsulta {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasConsulta(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T medir(String operacao, Supplier<T> chamada) {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "erro";
+        try {
+            T valor = chamada.get();
+            resultado = "sucesso";
+            return valor;
+        } catch (ConflictException e) {
+            resultado = "conflito";
+            throw e;
+        } catch (BadRequestException | NotFoundException e) {
+            resultado = "rejeitado";
+            throw e;
+        } finally {
+            amostra.stop(Timer.builder("consultas.operacao")
+                    .description("Duração das operações de agenda")
+                    .tag("operacao", operacao)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Conta a recusa em {@code consultas.conflitos} (409) ou {@code consultas.rejeicoes} (demais) e devolve a
+     * exceção para ser lançada no mesmo ponto: {@code throw metricas.recusa("agendar", "data_passada", ...)}.
+     */
+    public <E extends RuntimeException> E recusa(String operacao, String motivo, E excecao) {
+        String nome = excecao instanceof ConflictException ? "consultas.conflitos" : "consultas.rejeicoes";
+        Counter.builder(nome)
+                .tag("operacao", operacao)
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+        return excecao;
+    }
+}
@@ -0,0 +1,120 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.vitalcajavet.msagendamentoconsultas.client.AnimalServiceClient;
+import com.vitalcajavet.msagendamentoconsultas.config.AnimalServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nomes de animais com cache local. Os ids que faltam no cache vão ao serviço de animais em uma chamada
+ * por bloco de {@code animal.service.max-ids-por-chamada}; se o serviço falhar ou estourar o timeout, os
+ * ids restantes ficam sem nome e a resposta segue com o nome provisório. Depois de uma falha, nenhuma chamada
+ * sai durante {@code animal.service.pausa-apos-falha}, para que cada listagem não espere o timeout de novo. Ids
+ * que o serviço não conhece ficam em um cache negativo por {@code animal.service.cache.ttl-desconhecidos}.
+ */
+@Component
+public class NomesAnimais {
+
+    private static final Logger logger = LoggerFactory.getLogger(NomesAnimais.class);
+
+    private final AnimalServiceClient animalServiceClient;
+    private final AnimalServiceProperties properties;
+    private final Ticker ticker;
+    private final Cache<Long, String> cache;
+    private final Cache<Long, Boolean> desconhecidos;
+    private final Counter falhas;
+    private final Counter chamadasPuladas;
+    private volatile long pausadoAte;
+
+    @Autowired
+    public NomesAnimais(AnimalServiceClient animalServiceClient,
+                       AnimalServiceProperties properties,
+                       MeterRegistry meterRegistry) {
+        this(animalServiceClient, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    NomesAnimais(AnimalServiceClient animalServiceClient,
+                 AnimalServiceProperties properties,
+                 MeterRegistry meterRegistry,
+                 Ticker ticker) {
+        this.animalServiceClient = animalServiceClient;
+        this.properties = properties;
+        this.ticker = ticker;
+        this.pausadoAte = ticker.read();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaximumSize())
+                .expireAfterWrite(properties.getCache().getTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.desconhecidos = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaximumSize())
+                .expireAfterWrite(properties.getCache().getTtlDesconhecidos())
+                .ticker(ticker)
+                .build();
+        this.falhas = Counter.builder("animal.service.falhas")
+                .description("Buscas de nomes de animais que caíram no nome provisório")
+                .register(meterRegistry);
+        this.chamadasPuladas = Counter.builder("animal.service.chamadas.puladas")
+                .description("Buscas de nomes de animais não feitas porque o serviço falhou há pouco")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "animais.nomes");
+    }
+
+    public Map<Long, String> emCache(Collection<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    public int getTamanhoBloco() {
+        return Math.max(1, properties.getMaxIdsPorChamada());
+    }
+
+    public Map<Long, String> buscar(Collection<Long> ids) {
+        Map<Long, String> nomes = new HashMap<>(cache.getAllPresent(ids));
+        Map<Long, Boolean> semNome = desconhecidos.getAllPresent(ids);
+        List<Long> faltantes = ids.stream()
+                .filter(id -> !nomes.containsKey(id) && !semNome.containsKey(id))
+                .distinct()
+                .toList();
+        if (faltantes.isEmpty()) {
+            return nomes;
+        }
+        if (ticker.read() - pausadoAte < 0) {
+            chamadasPuladas.increment();
+            return nomes;
+        }
+
+        int tamanhoBloco = getTamanhoBloco();
+        for (int i = 0; i < faltantes.size(); i += tamanhoBloco) {
+            List<Long> bloco = faltantes.subList(i, Math.min(i + tamanhoBloco, faltantes.size()));
+            try {
+                Map<Long, String> encontrados = animalServiceClient.buscarNomes(bloco);
+                cache.putAll(encontrados);
+                nomes.putAll(encontrados);
+                bloco.stream()
+                        .filter(id -> !encontrados.containsKey(id))
+                        .forEach(id -> desconhecidos.put(id, Boolean.TRUE));
+            } catch (RuntimeException e) {
+                falhas.increment();
+                pausadoAte = ticker.read() + properties.getPausaAposFalha().toNanos();
+                logger.warn("Serviço de animais indisponível, usando nomes provisórios por {}: {}",
+                        properties.getPausaAposFalha(), e.getMessage());
+                break;
+            }
+        }
+        return nomes;
+    }
+}
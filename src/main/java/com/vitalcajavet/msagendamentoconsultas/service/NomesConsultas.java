@@ -0,0 +1,61 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Troca os nomes provisórios de uma página de consultas pelos reais: uma consulta {@code IN (...)} para os
+ * veterinários e uma busca em lote (com cache) para os animais. Quem não for encontrado mantém o provisório.
+ */
+@Component
+public class NomesConsultas {
+
+    private final VeterinarioService veterinarioService;
+    private final NomesAnimais nomesAnimais;
+
+    public NomesConsultas(VeterinarioService veterinarioService, NomesAnimais nomesAnimais) {
+        this.veterinarioService = veterinarioService;
+        this.nomesAnimais = nomesAnimais;
+    }
+
+    public void preencher(List<ConsultaResponseDTO> consultas) {
+        if (consultas.isEmpty()) {
+            return;
+        }
+
+        Set<Long> veterinarioIds = consultas.stream().map(ConsultaResponseDTO::getVeterinarioId).collect(Collectors.toSet());
+        Set<Long> animalIds = consultas.stream().map(ConsultaResponseDTO::getAnimalId).collect(Collectors.toSet());
+
+        Map<Long, String> veterinarios = veterinarioService.nomesPorId(veterinarioIds);
+        Map<Long, String> animais = nomesAnimais.buscar(animalIds);
+
+        for (ConsultaResponseDTO consulta : consultas) {
+            String nomeVeterinario = veterinarios.get(consulta.getVeterinarioId());
+            if (nomeVeterinario != null) {
+                consulta.setNomeVeterinario(nomeVeterinario);
+            }
+            String nomeAnimal = animais.get(consulta.getAnimalId());
+            if (nomeAnimal != null) {
+                consulta.setNomeAnimal(nomeAnimal);
+            }
+        }
+    }
+
+    /**
+     * Nomes de animais que {@link #preencher} usaria sem chamar o serviço de animais; para montar ETags antes de
+     * decidir se a resposta é um 304.
+     */
+    public Map<Long, String> animaisEmCache(Collection<Long> animalIds) {
+        return nomesAnimais.emCache(animalIds);
+    }
+
+    public long versaoDosVeterinarios(Collection<Long> veterinarioIds) {
+        return veterinarioService.versaoDosNomes(veterinarioIds);
+    }
+}
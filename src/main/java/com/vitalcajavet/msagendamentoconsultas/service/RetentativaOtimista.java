@@ -0,0 +1,83 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.config.RetentativaProperties;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Repete uma alteração que perdeu a corrida de versão ({@code @Version}). Cada tentativa precisa abrir
+ * sua própria transação e reler a entidade. Entre tentativas espera um tempo aleatório entre zero e o
+ * backoff exponencial, limitado por {@code atrasoMaximo}.
+ *
+ * <p>Só alterações que não dependem do que o cliente leu podem ser repetidas. Quando o cliente informa
+ * a versão em que baseou a edição, a alteração roda uma única vez e qualquer divergência vira 409.
+ */
+@Component
+public class RetentativaOtimista {
+
+    private final RetentativaProperties retentativaProperties;
+
+    public RetentativaOtimista(RetentativaProperties retentativaProperties) {
+        this.retentativaProperties = retentativaProperties;
+    }
+
+    /**
+     * @param versaoLida versão em que o cliente baseou a alteração; {@code null} quando a alteração não
+     *                   depende da leitura e pode ser repetida sobre a versão atual
+     */
+    public <T> T executar(String recurso, Long versaoLida, Supplier<T> alteracao) {
+        if (versaoLida == null) {
+            return executar(recurso, alteracao);
+        }
+        try {
+            return alteracao.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw conflito(recurso);
+        }
+    }
+
+    /**
+     * Chamado dentro da tentativa, logo depois de reler a entidade.
+     */
+    public static void exigirVersao(String recurso, Long versaoLida, Long versaoAtual) {
+        if (versaoLida != null && !versaoLida.equals(versaoAtual)) {
+            throw conflito(recurso);
+        }
+    }
+
+    public <T> T executar(String recurso, Supplier<T> alteracao) {
+        int maxTentativas = Math.max(1, retentativaProperties.getMaxTentativas());
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return alteracao.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (tentativa >= maxTentativas) {
+                    throw conflito(recurso);
+                }
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    private static ConflictException conflito(String recurso) {
+        return new ConflictException(recurso + " foi alterado por outra requisição, tente novamente");
+    }
+
+    private void aguardar(int tentativa) {
+        long inicial = retentativaProperties.getAtrasoInicial().toMillis();
+        long maximo = retentativaProperties.getAtrasoMaximo().toMillis();
+        long teto = Math.min(maximo, inicial << Math.min(tentativa - 1, 20));
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(teto + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Alteração interrompida, tente novamente");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AgendamentoProperties;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa, dentro desta instância, as alterações na agenda de um mesmo veterinário. Cada
+ * veterinário cai sempre na mesma faixa; veterinários diferentes só disputam a trava quando
+ * colidem de faixa. Entre instâncias quem decide é o índice único de {@code consultas}.
+ */
+@Component
+public class TravasPorVeterinario {
+
+    private final ReentrantLock[] travas;
+    private final long esperaNanos;
+
+    public TravasPorVeterinario(AgendamentoProperties agendamentoProperties) {
+        int faixas = Integer.highestOneBit(Math.max(1, agendamentoProperties.getFaixasDeTrava() - 1)) << 1;
+        this.travas = new ReentrantLock[faixas];
+        for (int i = 0; i < faixas; i++) {
+            travas[i] = new ReentrantLock();
+        }
+        this.esperaNanos = agendamentoProperties.getEsperaTrava().toNanos();
+    }
+
+    public <T> T executar(Long veterinarioId, Supplier<T> acao) {
+        return executar(List.of(veterinarioId), acao);
+    }
+
+    /**
+     * Trava todas as faixas dos veterinários informados, sempre em ordem crescente de faixa para que
+     * dois lotes com veterinários em comum não se bloqueiem mutuamente.
+     */
+    public <T> T executar(Collection<Long> veterinarioIds, Supplier<T> acao) {
+        int[] faixas = veterinarioIds.stream()
+                .mapToInt(this::faixaDe)
+                .distinct()
+                .sorted()
+                .toArray();
+        long limite = System.nanoTime() + esperaNanos;
+        int travadas = 0;
+
+        try {
+            for (int faixa : faixas) {
+                if (!travas[faixa].tryLock(limite - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new ConflictException("Agenda do veterinario ocupada, tente novamente");
+                }
+                travadas++;
+            }
+            return acao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Agenda do veterinario ocupada, tente novamente");
+        } finally {
+            for (int i = travadas - 1; i >= 0; i--) {
+                travas[faixas[i]].unlock();
+            }
+        }
+    }
+
+    private int faixaDe(Long veterinarioId) {
+        int hash = Long.hashCode(veterinarioId);
+        return (hash ^ (hash >>> 16)) & (travas.length - 1);
+    }
+}
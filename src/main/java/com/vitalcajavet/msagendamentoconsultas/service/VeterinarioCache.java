@@ -0,0 +1,82 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vitalcajavet.msagendamentoconsultas.config.VeterinarioCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Leituras de veterinário passam por {@link CargaNoChamador}, que carrega cada chave uma única vez, na
+ * thread e na transação de quem pediu. Uma invalidação concorrente com a carga remove a carga em andamento,
+ * então o valor lido antes de um commit não sobrevive à invalidação feita depois dele.
+ */
+@Component
+public class VeterinarioCache {
+
+    private static final String ATIVOS = "ativos";
+
+    private final VeterinarioCacheProperties properties;
+    private final AsyncCache<Long, Veterinario> porId;
+    private final AsyncCache<String, List<Veterinario>> ativos;
+
+    public VeterinarioCache(VeterinarioCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.ativos = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+
+        monitorar(meterRegistry, porId.synchronous(), "veterinarios.por-id");
+        monitorar(meterRegistry, ativos.synchronous(), "veterinarios.ativos");
+    }
+
+    public Optional<Veterinario> porId(Long id, Function<Long, Optional<Veterinario>> carregar) {
+        if (!properties.isEnabled()) {
+            return carregar.apply(id);
+        }
+        return Optional.ofNullable(CargaNoChamador.obter(porId, id, chave -> carregar.apply(chave).orElse(null)));
+    }
+
+    public List<Veterinario> ativos(Supplier<List<Veterinario>> carregar) {
+        if (!properties.isEnabled()) {
+            return carregar.get();
+        }
+        return CargaNoChamador.obter(ativos, ATIVOS, chave -> List.copyOf(carregar.get()));
+    }
+
+    public void invalidar(Long id) {
+        if (id != null) {
+            porId.synchronous().invalidate(id);
+        }
+        ativos.synchronous().invalidate(ATIVOS);
+    }
+
+    public CacheStats statsPorId() {
+        return porId.synchronous().stats();
+    }
+
+    private static void monitorar(MeterRegistry meterRegistry, Cache<?, ?> cache, String nome) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, nome);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", nome)
+                .description("Fração das leituras atendidas pelo cache desde a subida")
+                .register(meterRegistry);
+    }
+}
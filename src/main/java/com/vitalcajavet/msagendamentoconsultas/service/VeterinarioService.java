@@ -1,81 +1,167 @@
 package com.vitalcajavet.msagendamentoconsultas.service;
 
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.dto.Pagina;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.exception.NotFoundException;
 import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.repository.NomeVeterinario;
 import com.vitalcajavet.msagendamentoconsultas.repository.VeterinarioRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class VeterinarioService {
 
-    private final VeterinarioRepository veterinarioRepository;
+    private static final int TRECHO_MINIMO = 3;
 
-    public VeterinarioService(VeterinarioRepository veterinarioRepository) {
+    private final VeterinarioRepository veterinarioRepository;
+    private final VeterinarioCache veterinarioCache;
+    private final RetentativaOtimista retentativaOtimista;
+    private final TransactionTemplate transactionTemplate;
+
+    public VeterinarioService(VeterinarioRepository veterinarioRepository,
+                              VeterinarioCache veterinarioCache,
+                              RetentativaOtimista retentativaOtimista,
+                              PlatformTransactionManager transactionManager) {
         this.veterinarioRepository = veterinarioRepository;
+        this.veterinarioCache = veterinarioCache;
+        this.retentativaOtimista = retentativaOtimista;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public List<Veterinario> findAll() {
-        return veterinarioRepository.findAll();
+    @Transactional(readOnly = true)
+    public Pagina<Veterinario> findPagina(CursorPagina cursor, int limite) {
+        List<Veterinario> veterinarios = veterinarioRepository.findPagina(cursor.id(), PageRequest.of(0, limite + 1));
+        return Pagina.de(veterinarios, limite, v -> new CursorPagina(null, v.getId()));
     }
 
     public List<Veterinario> findAllAtivos() {
-        return veterinarioRepository.findAllAtivos();
+        return veterinarioCache.ativos(() -> lerNoPrimario(veterinarioRepository::findAllAtivos));
     }
 
     public Optional<Veterinario> findById(Long id) {
-        return veterinarioRepository.findById(id);
+        return veterinarioCache.porId(id, chave -> lerNoPrimario(() -> veterinarioRepository.findById(chave)));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, String> nomesPorId(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return veterinarioRepository.findNomesByIdIn(ids).stream()
+                .collect(Collectors.toMap(NomeVeterinario::id, NomeVeterinario::nome));
+    }
+
+    // As versões só crescem, então a soma muda sempre que algum desses veterinários é editado.
+    @Transactional(readOnly = true)
+    public long versaoDosNomes(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return veterinarioRepository.sumVersionByIdIn(ids);
     }
 
     public Optional<Veterinario> findByCpf(String cpf) {
-        return veterinarioRepository.findByCpf(cpf);
+        return lerNoPrimario(() -> veterinarioRepository.findByCpf(cpf));
     }
 
     public boolean existsById(Long id) {
-        return veterinarioRepository.existsById(id);
+        return lerNoPrimario(() -> veterinarioRepository.existsById(id));
     }
 
     public Veterinario save(Veterinario veterinario) {
-        veterinarioRepository.findByCpf(veterinario.getCpf())
+        findByCpf(veterinario.getCpf())
                 .ifPresent(v -> { throw new RuntimeException("CPF já cadastrado para outro veterinário."); });
 
-        return veterinarioRepository.save(veterinario);
+        Veterinario salvo = veterinarioRepository.save(veterinario);
+        veterinarioCache.invalidar(salvo.getId());
+        return salvo;
     }
 
     public void deleteById(Long id) {
         veterinarioRepository.deleteById(id);
+        veterinarioCache.invalidar(id);
     }
 
+    /**
+     * Com {@code version} preenchida no corpo, a edição só é aplicada se o veterinário ainda estiver nessa
+     * versão (409 caso contrário). Sem ela, o corpo substitui o cadastro atual.
+     */
     public Veterinario update(Long id, Veterinario veterinarioDetails) {
-        Veterinario veterinario = veterinarioRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Veterinário não encontrado com ID: " + id));
+        return alterar(id, veterinarioDetails.getVersion(), veterinario -> {
+            veterinario.setNome(veterinarioDetails.getNome());
+            veterinario.setSexo(veterinarioDetails.getSexo());
+            veterinario.setCpf(veterinarioDetails.getCpf());
+            veterinario.setEspecialidade(veterinarioDetails.getEspecialidade());
+            veterinario.setAtivo(veterinarioDetails.getAtivo());
+        });
+    }
 
-        veterinario.setNome(veterinarioDetails.getNome());
-        veterinario.setSexo(veterinarioDetails.getSexo());
-        veterinario.setCpf(veterinarioDetails.getCpf()); 
-        veterinario.setEspecialidade(veterinarioDetails.getEspecialidade());
-        veterinario.setAtivo(veterinarioDetails.getAtivo());
+    public Veterinario desativar(Long id) {
+        return alterar(id, null, veterinario -> veterinario.setAtivo(false));
+    }
 
-        return veterinarioRepository.save(veterinario);
+    private Veterinario alterar(Long id, Long versaoLida, Consumer<Veterinario> alteracao) {
+        try {
+            return retentativaOtimista.executar("O veterinário", versaoLida, () -> transactionTemplate.execute(status -> {
+                Veterinario veterinario = veterinarioRepository.findById(id)
+                        .orElseThrow(() -> new NotFoundException("Veterinário não encontrado com ID: " + id));
+                RetentativaOtimista.exigirVersao("O veterinário", versaoLida, veterinario.getVersion());
+
+                alteracao.accept(veterinario);
+                return veterinarioRepository.saveAndFlush(veterinario);
+            }));
+        } finally {
+            veterinarioCache.invalidar(id);
+        }
     }
 
-    public Veterinario desativar(Long id) {
-        Veterinario veterinario = veterinarioRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Veterinário não encontrado com ID: " + id));
+    @Transactional(readOnly = true)
+    public List<Veterinario> findByNome(String nome, int limite) {
+        return veterinarioRepository.buscarAtivosPorTrechoDoNome(escaparLike(trechoDaBusca(nome)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Veterinario> findByEspecialidade(String especialidade, int limite) {
+        return veterinarioRepository.buscarAtivosPorTrechoDaEspecialidade(
+                escaparLike(trechoDaBusca(especialidade)), limite);
+    }
 
-        veterinario.setAtivo(false);
-        return veterinarioRepository.save(veterinario);
+    // Com menos de 3 caracteres o pg_trgm não extrai nenhum trigrama, o índice não filtra nada e o
+    // ORDER BY ... LIMIT ordenaria todos os veterinários ativos.
+    private static String trechoDaBusca(String trecho) {
+        String aparado = trecho.trim();
+        if (aparado.codePointCount(0, aparado.length()) < TRECHO_MINIMO) {
+            throw new BadRequestException("Informe ao menos " + TRECHO_MINIMO + " caracteres para buscar");
+        }
+        return aparado;
     }
 
-    public List<Veterinario> findByNome(String nome) {
-        return veterinarioRepository.findByNomeContainingIgnoreCase(nome);
+    private static String escaparLike(String trecho) {
+        return trecho
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
-    public List<Veterinario> findByEspecialidade(String especialidade) {
-        return veterinarioRepository.findByEspecialidadeContainingIgnoreCase(especialidade);
+    // Leituras que alimentam o cache ou validam escritas não podem vir de uma réplica atrasada. Só transações
+    // somente leitura vão para a réplica, então uma transação comum mantém a conexão no primário.
+    private <T> T lerNoPrimario(Supplier<T> leitura) {
+        return transactionTemplate.execute(status -> leitura.get());
     }
 
     public long countAtivos() {
-        return veterinarioRepository.countAtivos();
+        return findAllAtivos().size();
     }
 }
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS veterinarios (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome          VARCHAR(100) NOT NULL,
+    sexo          VARCHAR(20)  NOT NULL CHECK (sexo IN ('MASCULINO', 'FEMININO')),
+    cpf           VARCHAR(100) NOT NULL,
+    especialidade VARCHAR(100),
+    ativo         BOOLEAN      NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS consultas (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    animal_id      BIGINT       NOT NULL,
+    veterinario_id BIGINT       NOT NULL,
+    data_hora      TIMESTAMP(6) NOT NULL,
+    tipo           VARCHAR(20)  NOT NULL CHECK (tipo IN ('ROTINA', 'EMERGENCIA')),
+    status         VARCHAR(20)  NOT NULL CHECK (status IN ('AGENDADA', 'REALIZADA', 'CANCELADA')),
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
@@ -0,0 +1,11 @@
+-- Histórico de um animal, listagens por status e consultas de hoje / por período, sem filtro de
+-- veterinário. O id no fim de cada índice atende também à paginação por cursor, que ordena por
+-- (data_hora, id). A agenda de um veterinário é coberta pelo índice único parcial de V4.
+CREATE INDEX IF NOT EXISTS idx_consultas_animal_data_hora_id
+    ON consultas (animal_id, data_hora, id);
+
+CREATE INDEX IF NOT EXISTS idx_consultas_status_data_hora_id
+    ON consultas (status, data_hora, id);
+
+CREATE INDEX IF NOT EXISTS idx_consultas_data_hora_id
+    ON consultas (data_hora, id);
@@ -0,0 +1,8 @@
+-- Paginação por cursor: as listagens ordenam por (data_hora, id) e buscam a partir do último item
+-- entregue. Com id no fim do índice o seek e o ORDER BY saem do próprio índice, sem sort. Os índices
+-- por dia, animal e status já nascem nesse formato em V2.
+CREATE INDEX IF NOT EXISTS idx_consultas_veterinario_data_hora_id
+    ON consultas (veterinario_id, data_hora, id);
+
+CREATE INDEX IF NOT EXISTS idx_consultas_tipo_data_hora_id
+    ON consultas (tipo, data_hora, id);
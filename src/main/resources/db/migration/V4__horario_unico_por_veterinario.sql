@@ -0,0 +1,26 @@
+-- Um veterinário não pode ter duas consultas ativas no mesmo horário. A migração não escolhe qual
+-- agendamento duplicado cancelar: se houver duplicados, ela falha listando cada (veterinario_id, data_hora)
+-- e os ids envolvidos, para que sejam resolvidos (e os tutores avisados) antes de rodar de novo.
+DO $$
+DECLARE
+    conflitos text;
+BEGIN
+    SELECT string_agg(format('veterinario_id=%s data_hora=%s ids=%s', veterinario_id, data_hora, ids), E'\n')
+    INTO conflitos
+    FROM (SELECT veterinario_id, data_hora, array_agg(id ORDER BY id) AS ids
+          FROM consultas
+          WHERE status <> 'CANCELADA'
+          GROUP BY veterinario_id, data_hora
+          HAVING count(*) > 1
+          ORDER BY veterinario_id, data_hora) duplicados;
+
+    IF conflitos IS NOT NULL THEN
+        RAISE EXCEPTION 'Consultas ativas duplicadas no mesmo horário do veterinário; cancele ou remarque antes de migrar:%',
+            E'\n' || conflitos;
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_consultas_veterinario_data_hora_ativas
+    ON consultas (veterinario_id, data_hora)
+    WHERE status <> 'CANCELADA';
@@ -0,0 +1,10 @@
+-- Ids de consultas passam a vir de uma sequência com incremento 50: o Hibernate reserva blocos de
+-- 50 ids por chamada (otimizador pooled) e consegue agrupar os INSERTs em lote, o que IDENTITY impede.
+-- Cada valor da sequência é o fim do bloco reservado, por isso ela começa 50 acima do maior id atual.
+CREATE SEQUENCE IF NOT EXISTS consultas_seq INCREMENT BY 50;
+
+SELECT setval('consultas_seq', COALESCE((SELECT MAX(id) FROM consultas), 0) + 50, false);
+
+ALTER TABLE consultas ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE consultas ALTER COLUMN id SET DEFAULT nextval('consultas_seq');
+ALTER SEQUENCE consultas_seq OWNED BY consultas.id;
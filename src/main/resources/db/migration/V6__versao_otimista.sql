@@ -0,0 +1,2 @@
+ALTER TABLE consultas ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE veterinarios ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Busca por trecho de nome/especialidade sem seq scan e sem diferenciar acentos ("joao" encontra "João").
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE e não pode ser usada em índice; com o dicionário fixo o resultado é determinístico.
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+CREATE INDEX IF NOT EXISTS idx_veterinarios_nome_trgm
+    ON veterinarios USING gin (lower(f_unaccent(nome)) gin_trgm_ops)
+    WHERE ativo;
+
+CREATE INDEX IF NOT EXISTS idx_veterinarios_especialidade_trgm
+    ON veterinarios USING gin (lower(f_unaccent(especialidade)) gin_trgm_ops)
+    WHERE ativo;
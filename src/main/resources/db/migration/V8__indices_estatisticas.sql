@@ -0,0 +1,4 @@
+-- Estatísticas agregam por status, tipo, veterinário e dia/semana dentro de um intervalo de data_hora.
+-- Com as colunas agrupadas no INCLUDE, todas saem de um index-only scan do intervalo, sem ler a tabela.
+CREATE INDEX IF NOT EXISTS idx_consultas_data_hora_estatisticas
+    ON consultas (data_hora) INCLUDE (status, tipo, veterinario_id);
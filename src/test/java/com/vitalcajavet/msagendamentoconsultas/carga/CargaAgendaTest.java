@@ -0,0 +1,311 @@
+package com.vitalcajavet.msagendamentoconsultas.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vitalcajavet.msagendamentoconsultas.AgendamentoConsultasApplication;
+import com.vitalcajavet.msagendamentoconsultas.security.AuthServiceStub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga de ponta a ponta sem rede: sobe a aplicação contra o PostgreSQL local (ou o indicado em
+ * {@code carga.datasource.*}), troca o auth-service por {@link AuthServiceStub} com latência configurável,
+ * semeia milhões de consultas com {@code generate_series} e dispara agendamentos, grades de horários e listagens
+ * misturados em RPS fixo. O relatório por endpoint vai para o console e para {@code carga.relatorio}; o teste
+ * falha quando algum endpoint passa dos limites {@code carga.limite.*}.
+ */
+@Tag("carga-agenda")
+class CargaAgendaTest {
+
+    private static final int MINUTOS_DE_EXPEDIENTE = 600;
+    private static final int BLOCO_SEMEADURA = 500_000;
+
+    private final String execucao = "carga-" + System.currentTimeMillis();
+
+    @Test
+    void trafegoMistoDentroDosLimites() throws Exception {
+        Configuracao config = Configuracao.doSistema();
+
+        try (AuthServiceStub authService = new AuthServiceStub();
+             GeradorCarga gerador = new GeradorCarga(Duration.ofSeconds(10));
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(AgendamentoConsultasApplication.class)
+                     .run(argumentos(config, authService))) {
+            authService.setLatencia(config.latenciaAuth());
+            JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+            String base = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port") + "/api/v1";
+
+            try {
+                List<Long> veterinarios = semear(jdbcTemplate, config);
+                Trafego trafego = new Trafego(base, veterinarios, config);
+
+                gerador.executarMisto(config.rps(), config.aquecimento(), trafego::proxima);
+                List<ResultadoCarga> resultados = gerador.executarMisto(config.rps(), config.duracao(), trafego::proxima);
+
+                System.out.printf("=== Carga mista: %d rps por %s, %d consultas, auth com %d ms ===%n",
+                        config.rps(), config.duracao(), config.consultas(), config.latenciaAuth().toMillis());
+                resultados.forEach(resultado -> System.out.println(resultado.linha()));
+                gravarRelatorio(config, resultados);
+
+                List<String> violacoes = new ArrayList<>();
+                resultados.forEach(resultado -> violacoes.addAll(config.violacoes(resultado)));
+                assertThat(violacoes).as("Limites de regressão (carga.limite.*)").isEmpty();
+            } finally {
+                limpar(jdbcTemplate);
+            }
+        }
+    }
+
+    private static String[] argumentos(Configuracao config, AuthServiceStub authService) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--auth.service.url=" + authService.url(),
+                "--auth.service.max-concurrent-calls=5000",
+                "--app.horario-comercial.inicio=8",
+                "--app.horario-comercial.fim=18",
+                "--app.horario-comercial.horas-minimas-cancelamento=2"));
+        config.datasource().forEach((chave, valor) -> argumentos.add("--spring.datasource." + chave + "=" + valor));
+        return argumentos.toArray(String[]::new);
+    }
+
+    /**
+     * Um veterinário por linha de {@code generate_series} e as consultas espalhadas em {@code carga.dias} dias em
+     * torno de hoje, cada uma num minuto distinto do expediente daquele veterinário, para respeitar o índice único.
+     */
+    private List<Long> semear(JdbcTemplate jdbcTemplate, Configuracao config) {
+        long capacidade = (long) config.veterinarios() * config.dias() * MINUTOS_DE_EXPEDIENTE;
+        assertThat((long) config.consultas()).as("consultas cabem em horários distintos").isLessThanOrEqualTo(capacidade);
+
+        jdbcTemplate.update("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                SELECT 'Carga ' || g, CASE WHEN g % 2 = 0 THEN 'FEMININO' ELSE 'MASCULINO' END,
+                       ? || '-' || g, 'Clinica geral', true, now(), now()
+                FROM generate_series(1, ?) AS g
+                """, execucao, config.veterinarios());
+        List<Long> veterinarios = jdbcTemplate.queryForList(
+                "SELECT id FROM veterinarios WHERE cpf LIKE ? ORDER BY id", Long.class, execucao + "-%");
+
+        long inicio = System.nanoTime();
+        for (int primeira = 0; primeira < config.consultas(); primeira += BLOCO_SEMEADURA) {
+            int ultima = Math.min(primeira + BLOCO_SEMEADURA, config.consultas()) - 1;
+            jdbcTemplate.update("""
+                    WITH v AS (
+                        SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM veterinarios WHERE cpf LIKE ?
+                    )
+                    INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                    SELECT (s.g % 50000) + 1,
+                           s.veterinario_id,
+                           date_trunc('day', now()) + make_interval(days => s.dia, mins => 480 + s.minuto),
+                           CASE WHEN s.g % 10 = 0 THEN 'EMERGENCIA' ELSE 'ROTINA' END,
+                           CASE WHEN s.g % 13 = 0 THEN 'CANCELADA' WHEN s.dia < 0 THEN 'REALIZADA' ELSE 'AGENDADA' END,
+                           now(), now()
+                    FROM (
+                        SELECT g, v.id AS veterinario_id,
+                               ((g / ?) % ?)::int - ? AS dia,
+                               ((g / ? / ?) % ?)::int AS minuto
+                        FROM generate_series(?::bigint, ?::bigint) AS g
+                        JOIN v ON v.n = g % ?
+                    ) s
+                    """, execucao + "-%",
+                    config.veterinarios(), config.dias(), config.dias() / 2,
+                    config.veterinarios(), config.dias(), MINUTOS_DE_EXPEDIENTE,
+                    primeira, ultima, config.veterinarios());
+            System.out.printf("Semeadas %d de %d consultas%n", ultima + 1, config.consultas());
+        }
+        jdbcTemplate.execute("ANALYZE consultas");
+        jdbcTemplate.execute("ANALYZE veterinarios");
+        System.out.printf("Semeadura concluída em %d s%n", Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+
+        return veterinarios;
+    }
+
+    private void limpar(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                DELETE FROM consultas WHERE veterinario_id IN (SELECT id FROM veterinarios WHERE cpf LIKE ?)
+                """, execucao + "-%");
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE cpf LIKE ?", execucao + "-%");
+    }
+
+    private void gravarRelatorio(Configuracao config, List<ResultadoCarga> resultados) throws Exception {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (ResultadoCarga resultado : resultados) {
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("endpoint", resultado.nome());
+            linha.put("rpsAlvo", resultado.rpsAlvo());
+            linha.put("throughput", resultado.throughput());
+            linha.put("enviadas", resultado.enviadas());
+            linha.put("erros", resultado.erros());
+            linha.put("taxaErro", resultado.taxaErro());
+            linha.put("p50Ms", resultado.p50().toNanos() / 1e6);
+            linha.put("p99Ms", resultado.p99().toNanos() / 1e6);
+            linha.put("p999Ms", resultado.p999().toNanos() / 1e6);
+            endpoints.add(linha);
+        }
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("rps", config.rps());
+        relatorio.put("duracaoSegundos", config.duracao().toSeconds());
+        relatorio.put("consultas", config.consultas());
+        relatorio.put("veterinarios", config.veterinarios());
+        relatorio.put("latenciaAuthMs", config.latenciaAuth().toMillis());
+        relatorio.put("endpoints", endpoints);
+
+        Path arquivo = Path.of(config.relatorio());
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+        System.out.println("Relatório gravado em " + arquivo.toAbsolutePath());
+    }
+
+    /**
+     * Sorteia o endpoint de cada requisição pelos pesos configurados. Os agendamentos ocupam horários em dias
+     * depois dos semeados, um minuto novo por requisição, para que um 409 seja sempre uma regressão.
+     */
+    private static final class Trafego {
+
+        private final String base;
+        private final List<Long> veterinarios;
+        private final Configuracao config;
+        private final SplittableRandom random = new SplittableRandom(42);
+        private final LocalDate primeiroDiaLivre;
+        private long agendamentos;
+
+        Trafego(String base, List<Long> veterinarios, Configuracao config) {
+            this.base = base;
+            this.veterinarios = veterinarios;
+            this.config = config;
+            this.primeiroDiaLivre = LocalDate.now().plusDays(config.dias() - config.dias() / 2 + 1L);
+        }
+
+        GeradorCarga.RequisicaoCarga proxima(int i) {
+            String token = "Bearer usuario-" + (i % config.tokens());
+            int sorteio = random.nextInt(config.pesoTotal());
+            Long veterinarioId = veterinarios.get(random.nextInt(veterinarios.size()));
+
+            if ((sorteio -= config.pesoAgendar()) < 0) {
+                long horario = agendamentos++;
+                Long agendado = veterinarios.get((int) (horario % veterinarios.size()));
+                long slot = horario / veterinarios.size();
+                var dataHora = primeiroDiaLivre.plusDays(slot / MINUTOS_DE_EXPEDIENTE)
+                        .atTime(8, 0).plusMinutes(slot % MINUTOS_DE_EXPEDIENTE);
+                return post("agendar", "/consultas", token, """
+                        {"animalId": %d, "veterinarioId": %d, "dataHora": "%s", "tipo": "ROTINA"}
+                        """.formatted(1 + random.nextInt(50000), agendado, dataHora));
+            }
+            if ((sorteio -= config.pesoHorarios()) < 0) {
+                LocalDate dia = LocalDate.now().plusDays(1 + random.nextInt(Math.max(1, config.dias() / 2 - 1)));
+                return post("horarios", "/consultas/horarios-disponiveis", token, """
+                        {"veterinarioId": %d, "data": "%s"}
+                        """.formatted(veterinarioId, dia));
+            }
+            if ((sorteio -= config.pesoVeterinario()) < 0) {
+                return get("listar_veterinario", "/consultas/veterinario/" + veterinarioId + "?limite=20", token);
+            }
+            return get("listar_futuras", "/consultas/futuras?limite=20", token);
+        }
+
+        private GeradorCarga.RequisicaoCarga get(String endpoint, String caminho, String token) {
+            return new GeradorCarga.RequisicaoCarga(endpoint, HttpRequest.newBuilder(URI.create(base + caminho))
+                    .header("Authorization", token)
+                    .GET());
+        }
+
+        private GeradorCarga.RequisicaoCarga post(String endpoint, String caminho, String token, String corpo) {
+            return new GeradorCarga.RequisicaoCarga(endpoint, HttpRequest.newBuilder(URI.create(base + caminho))
+                    .header("Authorization", token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo)));
+        }
+    }
+
+    /**
+     * Parâmetros lidos das propriedades de sistema {@code carga.*}; os limites aceitam sobrescrita por endpoint,
+     * por exemplo {@code -Dcarga.limite.p99-ms.agendar=400}.
+     */
+    private record Configuracao(int rps, Duration duracao, Duration aquecimento, int consultas, int veterinarios,
+                                int dias, Duration latenciaAuth, int tokens, int pesoAgendar, int pesoHorarios,
+                                int pesoVeterinario, int pesoFuturas, String relatorio,
+                                Map<String, String> datasource) {
+
+        static Configuracao doSistema() {
+            Map<String, String> datasource = new LinkedHashMap<>();
+            for (String chave : List.of("url", "username", "password")) {
+                String valor = System.getProperty("carga.datasource." + chave);
+                if (valor != null && !valor.isBlank()) {
+                    datasource.put(chave, valor);
+                }
+            }
+            return new Configuracao(
+                    Integer.getInteger("carga.rps", 300),
+                    duracao("carga.duracao", "60s"),
+                    duracao("carga.aquecimento", "15s"),
+                    Integer.getInteger("carga.consultas", 2_000_000),
+                    Integer.getInteger("carga.veterinarios", 200),
+                    Integer.getInteger("carga.dias", 365),
+                    duracao("carga.latencia-auth", "20ms"),
+                    Integer.getInteger("carga.tokens", 50),
+                    Integer.getInteger("carga.peso.agendar", 2),
+                    Integer.getInteger("carga.peso.horarios", 4),
+                    Integer.getInteger("carga.peso.listar-veterinario", 3),
+                    Integer.getInteger("carga.peso.listar-futuras", 1),
+                    System.getProperty("carga.relatorio", "target/carga/relatorio.json"),
+                    datasource);
+        }
+
+        int pesoTotal() {
+            return pesoAgendar + pesoHorarios + pesoVeterinario + pesoFuturas;
+        }
+
+        List<String> violacoes(ResultadoCarga resultado) {
+            String endpoint = resultado.nome();
+            List<String> violacoes = new ArrayList<>();
+
+            double p99 = limite("p99-ms", endpoint, 250);
+            if (resultado.p99().toNanos() / 1e6 > p99) {
+                violacoes.add("%s: p99 de %d ms acima de %.0f ms".formatted(endpoint, resultado.p99().toMillis(), p99));
+            }
+            double p999 = limite("p999-ms", endpoint, 1000);
+            if (resultado.p999().toNanos() / 1e6 > p999) {
+                violacoes.add("%s: p99.9 de %d ms acima de %.0f ms".formatted(endpoint, resultado.p999().toMillis(), p999));
+            }
+            double erros = limite("erros", endpoint, 0.001);
+            if (resultado.taxaErro() > erros) {
+                violacoes.add("%s: %.2f%% de erros acima de %.2f%%".formatted(endpoint, resultado.taxaErro() * 100, erros * 100));
+            }
+            double vazao = limite("vazao", endpoint, 0.95);
+            if (resultado.throughput() < resultado.rpsAlvo() * vazao) {
+                violacoes.add("%s: %.1f rps abaixo de %.0f%% do alvo de %d rps"
+                        .formatted(endpoint, resultado.throughput(), vazao * 100, resultado.rpsAlvo()));
+            }
+            return violacoes;
+        }
+
+        private static double limite(String nome, String endpoint, double padrao) {
+            String valor = System.getProperty("carga.limite." + nome + "." + endpoint,
+                    System.getProperty("carga.limite." + nome));
+            return valor == null ? padrao : Double.parseDouble(valor);
+        }
+
+        private static Duration duracao(String propriedade, String padrao) {
+            return DurationStyle.detectAndParse(System.getProperty(propriedade, padrao));
+        }
+    }
+}
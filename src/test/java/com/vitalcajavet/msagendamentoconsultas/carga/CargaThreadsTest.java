@@ -0,0 +1,99 @@
+package com.vitalcajavet.msagendamentoconsultas.carga;
+
+import com.vitalcajavet.msagendamentoconsultas.AgendamentoConsultasApplication;
+import com.vitalcajavet.msagendamentoconsultas.security.AuthServiceStub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara threads de plataforma e virtual threads com o serviço de autenticação lento.
+ * Cada requisição usa um token diferente e o cache de tokens fica desligado, então toda
+ * requisição segura uma thread do Tomcat enquanto espera o stub.
+ */
+@Tag("carga")
+class CargaThreadsTest {
+
+    private static final Duration LATENCIA_AUTH = Duration.ofMillis(100);
+    private static final Duration DURACAO_DEGRAU = Duration.ofSeconds(10);
+    private static final Duration P99_MAXIMO = Duration.ofSeconds(1);
+    private static final int[] DEGRAUS_RPS = {250, 500, 1000, 2000, 4000};
+
+    @Test
+    void comparaThreadsDePlataformaComVirtualThreads() throws Exception {
+        try (AuthServiceStub authService = new AuthServiceStub();
+             GeradorCarga gerador = new GeradorCarga(Duration.ofSeconds(10))) {
+            authService.setLatencia(LATENCIA_AUTH);
+
+            List<ResultadoCarga> plataforma = medir(authService, gerador, false);
+            List<ResultadoCarga> virtuais = medir(authService, gerador, true);
+
+            int maximoPlataforma = maximoSustentavel(plataforma);
+            int maximoVirtuais = maximoSustentavel(virtuais);
+
+            System.out.println("=== Threads de plataforma ===");
+            plataforma.forEach(resultado -> System.out.println(resultado.linha()));
+            System.out.println("=== Virtual threads ===");
+            virtuais.forEach(resultado -> System.out.println(resultado.linha()));
+            System.out.printf("Máximo sustentável: plataforma=%d rps, virtual=%d rps%n", maximoPlataforma, maximoVirtuais);
+
+            assertThat(maximoVirtuais).isGreaterThanOrEqualTo(maximoPlataforma);
+        }
+    }
+
+    private List<ResultadoCarga> medir(AuthServiceStub authService, GeradorCarga gerador, boolean virtual) {
+        String modo = virtual ? "virtual" : "plataforma";
+        List<ResultadoCarga> resultados = new ArrayList<>();
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(AgendamentoConsultasApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--auth.service.url=" + authService.url(),
+                        "--auth.token-cache.enabled=false",
+                        "--auth.service.max-concurrent-calls=5000",
+                        "--auth.service.max-wait-for-permit=1s")) {
+            URI alvo = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/veterinarios/estatisticas/contagem");
+
+            gerador.executar("aquecimento-" + modo, 200, Duration.ofSeconds(5), i -> requisicao(alvo, "aquecimento-" + i));
+
+            for (int rps : DEGRAUS_RPS) {
+                ResultadoCarga resultado = gerador.executar(modo, rps, DURACAO_DEGRAU,
+                        i -> requisicao(alvo, modo + "-" + rps + "-" + i));
+                resultados.add(resultado);
+                if (!sustentavel(resultado)) {
+                    break;
+                }
+            }
+        }
+
+        return resultados;
+    }
+
+    private static HttpRequest.Builder requisicao(URI alvo, String token) {
+        return HttpRequest.newBuilder(alvo).header("Authorization", "Bearer " + token).GET();
+    }
+
+    private static boolean sustentavel(ResultadoCarga resultado) {
+        return resultado.throughput() >= resultado.rpsAlvo() * 0.95
+                && resultado.taxaErro() < 0.01
+                && resultado.p99().compareTo(P99_MAXIMO) <= 0;
+    }
+
+    private static int maximoSustentavel(List<ResultadoCarga> resultados) {
+        return resultados.stream()
+                .filter(CargaThreadsTest::sustentavel)
+                .mapToInt(ResultadoCarga::rpsAlvo)
+                .max()
+                .orElse(0);
+    }
+}
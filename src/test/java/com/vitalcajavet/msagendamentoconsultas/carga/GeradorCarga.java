@@ -0,0 +1,99 @@
+package com.vitalcajavet.msagendamentoconsultas.carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Gerador de carga em malha aberta: as requisições saem em intervalos fixos, independente de
+ * as anteriores terem terminado, e a latência é medida a partir do instante planejado de envio
+ * (sem coordinated omission).
+ */
+public class GeradorCarga implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Duration timeoutRequisicao;
+
+    public GeradorCarga(Duration timeoutRequisicao) {
+        this.timeoutRequisicao = timeoutRequisicao;
+    }
+
+    public ResultadoCarga executar(String nome, int rps, Duration duracao, IntFunction<HttpRequest.Builder> requisicao) {
+        return executarMisto(rps, duracao, i -> new RequisicaoCarga(nome, requisicao.apply(i))).get(0);
+    }
+
+    /**
+     * Uma única malha aberta em {@code rps} com requisições de vários endpoints intercaladas; devolve um resultado
+     * por endpoint, com o alvo proporcional à fatia de requisições que ele recebeu.
+     */
+    public List<ResultadoCarga> executarMisto(int rps, Duration duracao, IntFunction<RequisicaoCarga> requisicao) {
+        int total = (int) (rps * duracao.toMillis() / 1000);
+        long intervaloNanos = 1_000_000_000L / rps;
+        long[] latencias = new long[total];
+        boolean[] falhas = new boolean[total];
+        String[] endpoints = new String[total];
+        CompletableFuture<?>[] pendentes = new CompletableFuture<?>[total];
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long planejado = inicio + i * intervaloNanos;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            int indice = i;
+            RequisicaoCarga proxima = requisicao.apply(i);
+            endpoints[i] = proxima.endpoint();
+            HttpRequest request = proxima.requisicao()
+                    .timeout(timeoutRequisicao)
+                    .build();
+            pendentes[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, erro) -> {
+                        latencias[indice] = System.nanoTime() - planejado;
+                        falhas[indice] = erro != null || response.statusCode() >= 400;
+                        return null;
+                    });
+        }
+
+        CompletableFuture.allOf(pendentes).orTimeout(timeoutRequisicao.toMillis() + 5_000, TimeUnit.MILLISECONDS).join();
+        Duration decorrido = Duration.ofNanos(System.nanoTime() - inicio);
+
+        Map<String, List<Integer>> porEndpoint = new TreeMap<>();
+        for (int i = 0; i < total; i++) {
+            porEndpoint.computeIfAbsent(endpoints[i], e -> new ArrayList<>()).add(i);
+        }
+
+        List<ResultadoCarga> resultados = new ArrayList<>();
+        porEndpoint.forEach((endpoint, indices) -> {
+            long[] doEndpoint = indices.stream().mapToLong(i -> latencias[i]).toArray();
+            int erros = (int) indices.stream().filter(i -> falhas[i]).count();
+            int rpsAlvo = (int) Math.round((double) rps * indices.size() / total);
+            resultados.add(new ResultadoCarga(endpoint, rpsAlvo, decorrido, indices.size(), erros, doEndpoint));
+        });
+        return resultados;
+    }
+
+    public record RequisicaoCarga(String endpoint, HttpRequest.Builder requisicao) {
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.vitalcajavet.msagendamentoconsultas.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public record ResultadoCarga(String nome, int rpsAlvo, Duration duracao, int enviadas, int erros, long[] latenciasNanos) {
+
+    public ResultadoCarga {
+        latenciasNanos = latenciasNanos.clone();
+        Arrays.sort(latenciasNanos);
+    }
+
+    public int sucessos() {
+        return enviadas - erros;
+    }
+
+    public double throughput() {
+        return sucessos() / (duracao.toNanos() / 1_000_000_000.0);
+    }
+
+    public double taxaErro() {
+        return enviadas == 0 ? 0 : (double) erros / enviadas;
+    }
+
+    public Duration p50() {
+        return percentil(0.50);
+    }
+
+    public Duration p99() {
+        return percentil(0.99);
+    }
+
+    public Duration p999() {
+        return percentil(0.999);
+    }
+
+    public Duration percentil(double p) {
+        if (latenciasNanos.length == 0) {
+            return Duration.ZERO;
+        }
+        int indice = (int) Math.ceil(p * latenciasNanos.length) - 1;
+        return Duration.ofNanos(latenciasNanos[Math.max(0, Math.min(indice, latenciasNanos.length - 1))]);
+    }
+
+    public String linha() {
+        return String.format("%-28s alvo=%5d rps  obtido=%8.1f rps  p50=%6d ms  p99=%6d ms  p99.9=%6d ms  erros=%5.2f%%",
+                nome, rpsAlvo, throughput(), p50().toMillis(), p99().toMillis(), p999().toMillis(), taxaErro() * 100);
+    }
+}
@@ -0,0 +1,68 @@
+package com.vitalcajavet.msagendamentoconsultas.client;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class AnimalServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private volatile Duration latencia = Duration.ZERO;
+
+    public AnimalServiceStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/animais", exchange -> {
+            chamadas.incrementAndGet();
+            try {
+                if (!latencia.isZero()) {
+                    Thread.sleep(latencia.toMillis());
+                }
+                String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+                String ids = query.substring(query.indexOf('=') + 1);
+                byte[] body = Arrays.stream(ids.split(","))
+                        .map(id -> "{\"id\":" + id + ",\"nome\":\"Rex " + id + "\"}")
+                        .collect(Collectors.joining(",", "[", "]"))
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int chamadas() {
+        return chamadas.get();
+    }
+
+    public void zerarChamadas() {
+        chamadas.set(0);
+    }
+
+    public void setLatencia(Duration latencia) {
+        this.latencia = latencia;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.vitalcajavet.msagendamentoconsultas.config;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O schema {@code replica} faz o papel do banco de leitura: o pool da réplica aponta para o mesmo PostgreSQL,
+ * mas com {@code search_path} começando em {@code replica}, o que permite ver para onde cada transação foi.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.hikari.connection-init-sql=SET search_path TO replica, public",
+        "app.datasource.replica.hikari.maximum-pool-size=4"
+})
+class RoteamentoLeituraDataSourceTest {
+
+    private static final long VETERINARIO_SO_NA_REPLICA = 987_654_321L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalDateTime horario;
+
+    @BeforeEach
+    void criarReplica() {
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS replica");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica.consultas (LIKE public.consultas INCLUDING DEFAULTS)");
+        horario = LocalDate.now().plusDays(30).atTime(10, 0);
+        jdbcTemplate.update("""
+                INSERT INTO replica.consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                VALUES (1, ?, ?, 'ROTINA', 'AGENDADA', now(), now())
+                """, VETERINARIO_SO_NA_REPLICA, horario);
+    }
+
+    @AfterEach
+    void removerReplica() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS replica CASCADE");
+    }
+
+    @Test
+    void transacaoSomenteLeituraUsaReplica() {
+        assertThat(searchPath(true)).startsWith("replica");
+    }
+
+    @Test
+    void transacaoDeEscritaESemTransacaoUsamPrimario() {
+        assertThat(searchPath(false)).doesNotContain("replica");
+        assertThat(jdbcTemplate.queryForObject("SHOW search_path", String.class)).doesNotContain("replica");
+    }
+
+    @Test
+    void listagemLeDaReplicaEVerificacaoDeDisponibilidadeDoPrimario() {
+        double antes = roteadas("replica");
+
+        List<ConsultaResponseDTO> listadas = consultaService
+                .listarConsultasPorVeterinario(VETERINARIO_SO_NA_REPLICA, CursorPagina.INICIO, 10).itens();
+
+        assertThat(listadas).extracting(ConsultaResponseDTO::getDataHora).containsExactly(horario);
+        assertThat(consultaService.verificarDisponibilidade(VETERINARIO_SO_NA_REPLICA, horario)).isTrue();
+        assertThat(roteadas("replica")).isGreaterThan(antes);
+    }
+
+    private String searchPath(boolean somenteLeitura) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(somenteLeitura);
+        return template.execute(status -> jdbcTemplate.queryForObject("SHOW search_path", String.class));
+    }
+
+    private double roteadas(String destino) {
+        return meterRegistry.get("datasource.roteamento").tag("destino", destino).counter().count();
+    }
+}
@@ -0,0 +1,299 @@
+package com.vitalcajavet.msagendamentoconsultas.controller;
+
+import com.vitalcajavet.msagendamentoconsultas.client.AnimalServiceStub;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.Sexo;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.service.AgendaAlterada;
+import com.vitalcajavet.msagendamentoconsultas.service.AgendaCache;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import com.vitalcajavet.msagendamentoconsultas.service.VeterinarioService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GETs condicionais pelo MockMvc, sem os filtros de segurança: a primeira leitura devolve a ETag, a repetição
+ * com {@code If-None-Match} recebe 304 vazio e qualquer escrita que mude o corpo troca a ETag.
+ */
+@SpringBootTest(properties = {"animal.service.timeout=300ms", "animal.service.pausa-apos-falha=0s"})
+@AutoConfigureMockMvc(addFilters = false)
+class GetCondicionalTest {
+
+    private static final int CONSULTAS_NO_DIA = 200;
+    private static final int REQUISICOES = 500;
+
+    private static final AnimalServiceStub animalService = iniciarStub();
+    private static long proximoAnimal = 8_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private VeterinarioService veterinarioService;
+
+    @Autowired
+    private AgendaCache agendaCache;
+
+    private Long veterinarioId;
+
+    @DynamicPropertySource
+    static void animalServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("animal.service.url", animalService::url);
+    }
+
+    @BeforeEach
+    void setUp() {
+        animalService.setLatencia(Duration.ZERO);
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Condicional', 'FEMININO', ?, 'Clinica geral', true, now(), now())
+                RETURNING id
+                """, Long.class, "etag-" + System.nanoTime());
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(LocalDateTime.now()));
+    }
+
+    @AfterAll
+    static void pararStub() {
+        animalService.close();
+    }
+
+    @Test
+    void consultaRespondeNaoModificadaAteMudarDeStatus() throws Exception {
+        Long id = inserirConsulta(LocalDate.now().plusDays(1).atTime(10, 0));
+        String url = "/api/v1/consultas/" + id;
+
+        String etag = obter(url, null).getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse repetida = obter(url, etag);
+
+        assertThat(repetida.getStatus()).isEqualTo(304);
+        assertThat(repetida.getContentAsByteArray()).isEmpty();
+
+        consultaService.atualizarStatus(id, StatusConsulta.REALIZADA);
+
+        MockHttpServletResponse alterada = obter(url, etag);
+        assertThat(alterada.getStatus()).isEqualTo(200);
+        assertThat(alterada.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(alterada.getContentAsString()).contains("REALIZADA");
+    }
+
+    @Test
+    void consultaTrocaDeEtagQuandoOVeterinarioMudaDeNome() throws Exception {
+        String url = "/api/v1/consultas/" + inserirConsulta(LocalDate.now().plusDays(1).atTime(10, 0));
+        String etag = obter(url, null).getHeader(HttpHeaders.ETAG);
+
+        veterinarioService.update(veterinarioId, veterinario("Condicional Renomeada"));
+
+        MockHttpServletResponse alterada = obter(url, etag);
+        assertThat(alterada.getStatus()).isEqualTo(200);
+        assertThat(alterada.getContentAsString()).contains("Condicional Renomeada");
+    }
+
+    @Test
+    void consultaComNomeProvisorioTrocaDeEtagQuandoONomeDoAnimalChega() throws Exception {
+        long animalId = proximoAnimal++;
+        String url = "/api/v1/consultas/" + inserirConsulta(animalId, LocalDate.now().plusDays(1).atTime(10, 0));
+
+        animalService.setLatencia(Duration.ofSeconds(2));
+        MockHttpServletResponse provisoria = obter(url, null);
+        assertThat(provisoria.getContentAsString()).contains("Animal #" + animalId);
+
+        animalService.setLatencia(Duration.ZERO);
+        obter("/api/v1/consultas/animal/" + animalId, null);
+
+        MockHttpServletResponse comNome = obter(url, provisoria.getHeader(HttpHeaders.ETAG));
+        assertThat(comNome.getStatus()).isEqualTo(200);
+        assertThat(comNome.getContentAsString()).contains("Rex " + animalId);
+        assertThat(obter(url, comNome.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void naoModificadoNaoChamaOServicoDeAnimais() throws Exception {
+        long animalId = proximoAnimal++;
+        LocalDateTime horario = LocalDate.now().atTime(23, 0);
+        String url = "/api/v1/consultas/" + inserirConsulta(animalId, horario);
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(horario));
+
+        animalService.setLatencia(Duration.ofSeconds(2));
+        String etagConsulta = obter(url, null).getHeader(HttpHeaders.ETAG);
+        String etagHoje = obter("/api/v1/consultas/hoje", null).getHeader(HttpHeaders.ETAG);
+        animalService.zerarChamadas();
+
+        assertThat(obter(url, etagConsulta).getStatus()).isEqualTo(304);
+        assertThat(obter("/api/v1/consultas/hoje", etagHoje).getStatus()).isEqualTo(304);
+        assertThat(animalService.chamadas()).isZero();
+    }
+
+    @Test
+    void corpoTrazAVersaoDaETag() throws Exception {
+        Long id = inserirConsulta(LocalDate.now().plusDays(1).atTime(10, 0));
+        long versao = jdbcTemplate.queryForObject("SELECT version FROM consultas WHERE id = ?", Long.class, id);
+
+        assertThat(obter("/api/v1/consultas/" + id, null).getContentAsString())
+                .contains("\"version\":" + versao);
+    }
+
+    @Test
+    void consultaInexistenteContinuaNaoEncontrada() throws Exception {
+        assertThat(obter("/api/v1/consultas/-1", "\"qualquer\"").getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void veterinarioEAtivosRespondemNaoModificadosAteAEdicao() throws Exception {
+        String porId = "/api/v1/veterinarios/" + veterinarioId;
+        String ativos = "/api/v1/veterinarios/ativos";
+
+        String etagPorId = obter(porId, null).getHeader(HttpHeaders.ETAG);
+        String etagAtivos = obter(ativos, null).getHeader(HttpHeaders.ETAG);
+
+        assertThat(obter(porId, etagPorId).getStatus()).isEqualTo(304);
+        assertThat(obter(ativos, etagAtivos).getStatus()).isEqualTo(304);
+
+        veterinarioService.update(veterinarioId, veterinario("Condicional Editada"));
+
+        assertThat(obter(porId, etagPorId).getStatus()).isEqualTo(200);
+        assertThat(obter(ativos, etagAtivos).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void agendaDeHojeTrocaDeEtagComNovaConsulta() throws Exception {
+        LocalDateTime horario = LocalDate.now().atTime(23, 0);
+        inserirConsulta(horario);
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(horario));
+
+        String etag = obter("/api/v1/consultas/hoje", null).getHeader(HttpHeaders.ETAG);
+        assertThat(obter("/api/v1/consultas/hoje", etag).getStatus()).isEqualTo(304);
+
+        inserirConsulta(horario.plusMinutes(30));
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(horario));
+
+        assertThat(obter("/api/v1/consultas/hoje", etag).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void agendaDeHojeTrocaDeEtagQuandoOVeterinarioMudaDeNome() throws Exception {
+        LocalDateTime horario = LocalDate.now().atTime(23, 0);
+        inserirConsulta(horario);
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(horario));
+        String etag = obter("/api/v1/consultas/hoje", null).getHeader(HttpHeaders.ETAG);
+
+        veterinarioService.update(veterinarioId, veterinario("Condicional Renomeada"));
+
+        MockHttpServletResponse alterada = obter("/api/v1/consultas/hoje", etag);
+        assertThat(alterada.getStatus()).isEqualTo(200);
+        assertThat(alterada.getContentAsString()).contains("Condicional Renomeada");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void pollingComEtagEconomizaBytesECpu() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT n, ?, ?::timestamp + (n || ' minutes')::interval, 'ROTINA', 'AGENDADA', now(), now()
+                FROM generate_series(1, ?) AS n
+                """, veterinarioId, LocalDate.now().atStartOfDay(), CONSULTAS_NO_DIA);
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(LocalDateTime.now()));
+
+        String url = "/api/v1/consultas/hoje";
+        String etag = obter(url, null).getHeader(HttpHeaders.ETAG);
+
+        Medicao semEtag = polling(url, null);
+        Medicao comEtag = polling(url, etag);
+
+        System.out.printf("Polling de /hoje (%d requisições, %d+ consultas no dia):%n", REQUISICOES, CONSULTAS_NO_DIA);
+        System.out.printf("  sem If-None-Match: %d bytes, %.1f ms de CPU%n", semEtag.bytes(), semEtag.cpuNanos() / 1e6);
+        System.out.printf("  com If-None-Match: %d bytes, %.1f ms de CPU%n", comEtag.bytes(), comEtag.cpuNanos() / 1e6);
+
+        assertThat(comEtag.bytes()).isZero();
+        assertThat(comEtag.cpuNanos()).isLessThan(semEtag.cpuNanos());
+    }
+
+    private Medicao polling(String url, String etag) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < REQUISICOES / 10; i++) {
+            obter(url, etag);
+        }
+
+        long bytes = 0;
+        long antes = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < REQUISICOES; i++) {
+            bytes += obter(url, etag).getContentAsByteArray().length;
+        }
+        return new Medicao(bytes, threads.getCurrentThreadCpuTime() - antes);
+    }
+
+    private MockHttpServletResponse obter(String url, String etag) throws Exception {
+        var requisicao = get(url);
+        if (etag != null) {
+            requisicao.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        return mockMvc.perform(requisicao).andReturn().getResponse();
+    }
+
+    private Long inserirConsulta(LocalDateTime dataHora) {
+        return inserirConsulta(1L, dataHora);
+    }
+
+    private Long inserirConsulta(long animalId, LocalDateTime dataHora) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                VALUES (?, ?, ?, 'ROTINA', 'AGENDADA', now(), now())
+                RETURNING id
+                """, Long.class, animalId, veterinarioId, dataHora);
+    }
+
+    private Veterinario veterinario(String nome) {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setNome(nome);
+        veterinario.setSexo(Sexo.FEMININO);
+        veterinario.setCpf("etag-" + veterinarioId);
+        veterinario.setEspecialidade("Clinica geral");
+        veterinario.setAtivo(true);
+        return veterinario;
+    }
+
+    private static AnimalServiceStub iniciarStub() {
+        try {
+            return new AnimalServiceStub();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Medicao(long bytes, long cpuNanos) {
+    }
+}
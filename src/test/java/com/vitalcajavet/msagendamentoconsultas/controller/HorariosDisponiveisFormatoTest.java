@@ -0,0 +1,181 @@
+package com.vitalcajavet.msagendamentoconsultas.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.GlobalExceptionHandler;
+import com.vitalcajavet.msagendamentoconsultas.service.ConsultaService;
+import com.vitalcajavet.msagendamentoconsultas.service.DisponibilidadeDoDia;
+import com.vitalcajavet.msagendamentoconsultas.service.GradeHorarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Negociação do formato de {@code /horarios-disponiveis} e a codificação das grades nas bordas do expediente
+ * (8h às 18h, 600 minutos). O serviço é substituído por uma grade montada no teste.
+ */
+class HorariosDisponiveisFormatoTest {
+
+    private static final String INTERVALOS = "application/vnd.vitalcajavet.horarios-intervalos+json";
+    private static final String BITMAP = "application/vnd.vitalcajavet.horarios-bitmap+json";
+    private static final LocalDate DIA = LocalDate.of(2090, 1, 9);
+    private static final int MINUTOS = 600;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private ConsultaService consultaService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        consultaService = mock(ConsultaService.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ConsultaController(consultaService, null, null, null, null))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void acceptCompactoDefineOContentType() throws Exception {
+        disponibilidade(List.of());
+
+        assertThat(horarios(null, INTERVALOS).getContentType()).startsWith(INTERVALOS);
+        assertThat(horarios(null, BITMAP).getContentType()).startsWith(BITMAP);
+    }
+
+    @Test
+    void parametroVenceOAcceptERespondeComoJson() throws Exception {
+        disponibilidade(List.of());
+
+        MockHttpServletResponse resposta = horarios("bitmap", INTERVALOS);
+
+        assertThat(resposta.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(json(resposta).has("totalSlots")).isTrue();
+    }
+
+    @Test
+    void parametroEmBrancoMantemOContentTypeDoAccept() throws Exception {
+        disponibilidade(List.of());
+
+        assertThat(horarios("", BITMAP).getContentType()).startsWith(BITMAP);
+        assertThat(horarios("  ", INTERVALOS).getContentType()).startsWith(INTERVALOS);
+    }
+
+    @Test
+    void semFormatoCompactoRespondeALista() throws Exception {
+        HorarioDisponivelResponseDTO lista = new HorarioDisponivelResponseDTO();
+        lista.setHorariosDisponiveis(List.of(DIA.atTime(8, 0)));
+        when(consultaService.listarHorariosDisponiveis(any())).thenReturn(lista);
+
+        MockHttpServletResponse resposta = horarios(null, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(resposta.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(json(resposta).get("horariosDisponiveis").get(0).asText()).isEqualTo("2090-01-09T08:00:00");
+    }
+
+    @Test
+    void primeiroEUltimoMinutoOcupados() throws Exception {
+        disponibilidade(List.of(DIA.atTime(8, 0), DIA.atTime(17, 59)));
+
+        JsonNode intervalos = json(horarios(null, INTERVALOS));
+        assertThat(intervalos.get("livres").toString())
+                .isEqualTo("[[\"2090-01-09T08:01:00\",\"2090-01-09T17:59:00\"]]");
+        assertThat(intervalos.get("ocupados").toString())
+                .isEqualTo("[[\"2090-01-09T08:00:00\",\"2090-01-09T08:01:00\"],"
+                        + "[\"2090-01-09T17:59:00\",\"2090-01-09T18:00:00\"]]");
+
+        JsonNode bitmap = json(horarios(null, BITMAP));
+        assertThat(bitmap.get("origem").asText()).isEqualTo("2090-01-09T08:00:00");
+        assertThat(bitmap.get("totalSlots").asInt()).isEqualTo(MINUTOS);
+        BitSet livres = bits(bitmap, "livres");
+        assertThat(livres.get(0)).isFalse();
+        assertThat(livres.get(1)).isTrue();
+        assertThat(livres.get(MINUTOS - 2)).isTrue();
+        assertThat(livres.get(MINUTOS - 1)).isFalse();
+        assertThat(livres.cardinality()).isEqualTo(MINUTOS - 2);
+        assertThat(bits(bitmap, "ocupados").stream().boxed().toList()).containsExactly(0, MINUTOS - 1);
+    }
+
+    @Test
+    void diaLotado() throws Exception {
+        List<LocalDateTime> todos = new ArrayList<>();
+        for (int minuto = 0; minuto < MINUTOS; minuto++) {
+            todos.add(DIA.atTime(8, 0).plusMinutes(minuto));
+        }
+        disponibilidade(todos);
+
+        JsonNode intervalos = json(horarios(null, INTERVALOS));
+        assertThat(intervalos.get("livres").toString()).isEqualTo("[]");
+        assertThat(intervalos.get("ocupados").toString())
+                .isEqualTo("[[\"2090-01-09T08:00:00\",\"2090-01-09T18:00:00\"]]");
+
+        JsonNode bitmap = json(horarios(null, BITMAP));
+        assertThat(bitmap.get("livres").asText()).isEmpty();
+        assertThat(bits(bitmap, "ocupados").cardinality()).isEqualTo(MINUTOS);
+    }
+
+    @Test
+    void diaVazio() throws Exception {
+        disponibilidade(List.of());
+
+        JsonNode intervalos = json(horarios(null, INTERVALOS));
+        assertThat(intervalos.get("livres").toString())
+                .isEqualTo("[[\"2090-01-09T08:00:00\",\"2090-01-09T18:00:00\"]]");
+        assertThat(intervalos.get("ocupados").toString()).isEqualTo("[]");
+
+        JsonNode bitmap = json(horarios(null, BITMAP));
+        assertThat(bits(bitmap, "livres").cardinality()).isEqualTo(MINUTOS);
+        assertThat(bitmap.get("ocupados").asText()).isEmpty();
+    }
+
+    private void disponibilidade(List<LocalDateTime> ocupados) {
+        GradeHorarios grade = GradeHorarios.doDia(DIA, 8, 18);
+        ocupados.forEach(grade::marcarOcupado);
+        when(consultaService.calcularDisponibilidade(any()))
+                .thenReturn(new DisponibilidadeDoDia(1L, "Grade", DIA, grade, ocupados));
+    }
+
+    private MockHttpServletResponse horarios(String formato, String accept) throws Exception {
+        var requisicao = post("/api/v1/consultas/horarios-disponiveis")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT, accept)
+                .content("{\"veterinarioId\": 1, \"data\": \"" + DIA + "\"}");
+        if (formato != null) {
+            requisicao.param("formato", formato);
+        }
+        MockHttpServletResponse resposta = mockMvc.perform(requisicao).andReturn().getResponse();
+        assertThat(resposta.getStatus()).isEqualTo(200);
+        return resposta;
+    }
+
+    private JsonNode json(MockHttpServletResponse resposta) throws Exception {
+        return objectMapper.readTree(resposta.getContentAsByteArray());
+    }
+
+    private static BitSet bits(JsonNode bitmap, String campo) {
+        return BitSet.valueOf(Base64.getDecoder().decode(bitmap.get(campo).asText()));
+    }
+}
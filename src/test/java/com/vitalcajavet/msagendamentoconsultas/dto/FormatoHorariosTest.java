@@ -0,0 +1,45 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormatoHorariosTest {
+
+    private static final String ACCEPT_INTERVALOS = "application/vnd.vitalcajavet.horarios-intervalos+json";
+    private static final String ACCEPT_BITMAP = "application/vnd.vitalcajavet.horarios-bitmap+json";
+
+    @Test
+    void parametroTemPrioridadeSobreOAccept() {
+        assertThat(FormatoHorarios.resolver("bitmap", ACCEPT_INTERVALOS)).isEqualTo(FormatoHorarios.BITMAP);
+        assertThat(FormatoHorarios.resolver("lista", ACCEPT_BITMAP)).isEqualTo(FormatoHorarios.LISTA);
+    }
+
+    @Test
+    void parametroIgnoraCaixaEEspacos() {
+        assertThat(FormatoHorarios.resolver(" Intervalos ", null)).isEqualTo(FormatoHorarios.INTERVALOS);
+    }
+
+    @Test
+    void parametroDesconhecidoERejeitado() {
+        assertThatThrownBy(() -> FormatoHorarios.resolver("xml", null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("xml");
+    }
+
+    @Test
+    void acceptEscolheOPrimeiroFormatoCompactoListado() {
+        assertThat(FormatoHorarios.resolver(null, ACCEPT_INTERVALOS)).isEqualTo(FormatoHorarios.INTERVALOS);
+        assertThat(FormatoHorarios.resolver("", "text/html, " + ACCEPT_BITMAP + ", " + ACCEPT_INTERVALOS))
+                .isEqualTo(FormatoHorarios.BITMAP);
+    }
+
+    @Test
+    void semParametroNemAcceptCompactoResponderComLista() {
+        assertThat(FormatoHorarios.resolver(null, null)).isEqualTo(FormatoHorarios.LISTA);
+        assertThat(FormatoHorarios.resolver(null, "application/json")).isEqualTo(FormatoHorarios.LISTA);
+        assertThat(FormatoHorarios.resolver(null, "*/*")).isEqualTo(FormatoHorarios.LISTA);
+    }
+}
@@ -0,0 +1,57 @@
+package com.vitalcajavet.msagendamentoconsultas.dto;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginaTest {
+
+    @Test
+    void cursorSobreviveIdaEVolta() {
+        CursorPagina cursor = new CursorPagina(LocalDateTime.of(2025, 3, 14, 9, 30), 4217L);
+
+        assertThat(CursorPagina.decodificarOuInicio(cursor.codificar())).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorSomenteComIdSobreviveIdaEVolta() {
+        CursorPagina cursor = new CursorPagina(null, 88L);
+
+        assertThat(CursorPagina.decodificarOuInicio(cursor.codificar())).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorAusenteComecaDoInicio() {
+        assertThat(CursorPagina.decodificarOuInicio(null)).isEqualTo(CursorPagina.INICIO);
+        assertThat(CursorPagina.decodificarOuInicio(" ")).isEqualTo(CursorPagina.INICIO);
+    }
+
+    @Test
+    void cursorAdulteradoERejeitado() {
+        assertThatThrownBy(() -> CursorPagina.decodificarOuInicio("não-é-base64"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagina.decodificarOuInicio("YWJj"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void excedenteIndicaProximaPagina() {
+        Pagina<Integer> pagina = Pagina.de(List.of(1, 2, 3, 4), 3, n -> new CursorPagina(null, n));
+
+        assertThat(pagina.itens()).containsExactly(1, 2, 3);
+        assertThat(pagina.proximoCursor()).isEqualTo(new CursorPagina(null, 3L));
+    }
+
+    @Test
+    void ultimaPaginaNaoTemCursor() {
+        Pagina<Integer> pagina = Pagina.de(List.of(1, 2, 3), 3, n -> new CursorPagina(null, n));
+
+        assertThat(pagina.itens()).containsExactly(1, 2, 3);
+        assertThat(pagina.proximoCursor()).isNull();
+    }
+}
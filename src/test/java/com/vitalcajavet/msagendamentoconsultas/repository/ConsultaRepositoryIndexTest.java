@@ -0,0 +1,119 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere, no Postgres local, que as consultas por dia usam os índices das migrações em vez de
+ * seq scan. Cada teste chama o método do repositório, captura o SQL que o Hibernate gerou e roda
+ * EXPLAIN sobre ele com os mesmos parâmetros. Os dados são semeados dentro da transação do teste e
+ * descartados no rollback.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.vitalcajavet.msagendamentoconsultas.repository.SqlCapturado")
+@Transactional
+class ConsultaRepositoryIndexTest {
+
+    private static final int VETERINARIOS = 50;
+    private static final int DIAS = 400;
+    private static final int LIMITE = 51;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate dia;
+
+    @BeforeEach
+    void semear() {
+        dia = LocalDate.now().plusDays(DIAS / 2);
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT (g % 5000) + 1,
+                       (g % ?) + 1,
+                       date_trunc('day', now()) + (((g / ?) % ?) || ' days')::interval + ((g / ?) || ' minutes')::interval,
+                       CASE WHEN g % 10 = 0 THEN 'EMERGENCIA' ELSE 'ROTINA' END,
+                       CASE WHEN g % 7 = 0 THEN 'CANCELADA' WHEN g % 3 = 0 THEN 'REALIZADA' ELSE 'AGENDADA' END,
+                       now(), now()
+                FROM generate_series(1, 100000) AS g
+                """, VETERINARIOS, VETERINARIOS, DIAS, VETERINARIOS * DIAS);
+        jdbcTemplate.execute("ANALYZE consultas");
+        SqlCapturado.limpar();
+    }
+
+    @Test
+    void agendaDoVeterinarioNoDiaUsaIndiceParcial() {
+        consultaRepository.findHorariosOcupadosByVeterinarioIdAndData(7L, inicioDoDia(), fimDoDia());
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate, 7L, inicioDoDia(), fimDoDia());
+
+        assertThat(plano).contains("uk_consultas_veterinario_data_hora_ativas");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void consultasDoDiaUsamIndiceDeDataHora() {
+        consultaRepository.findConsultasDeHoje(inicioDoDia(), fimDoDia());
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate, inicioDoDia(), fimDoDia());
+
+        assertThat(plano).contains("idx_consultas_data_hora_id");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void historicoDoAnimalUsaIndiceDeAnimal() {
+        CursorPagina inicio = CursorPagina.INICIO;
+        consultaRepository.findPaginaByAnimalId(42L, inicio.dataHora(), inicio.id(), PageRequest.of(0, LIMITE));
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate,
+                42L, inicio.dataHora(), inicio.dataHora(), inicio.id(), LIMITE);
+
+        assertThat(plano).contains("idx_consultas_animal_data_hora_id");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void consultasFuturasPorStatusUsamIndice() {
+        LocalDateTime agora = LocalDate.now().plusDays(DIAS - 2).atStartOfDay();
+        consultaRepository.findPaginaFuturas(agora, agora, 0L, PageRequest.of(0, LIMITE));
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate, agora, agora, agora, 0L, LIMITE);
+
+        assertThat(plano).contains("Index");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void paginaPorCursorBuscaNoIndiceSemOrdenar() {
+        consultaRepository.findPaginaByVeterinarioId(7L, inicioDoDia(), 50_000L, PageRequest.of(0, LIMITE));
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate,
+                7L, inicioDoDia(), inicioDoDia(), 50_000L, LIMITE);
+
+        assertThat(plano).contains("idx_consultas_veterinario_data_hora_id");
+        assertThat(plano).doesNotContain("Sort");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    private LocalDateTime inicioDoDia() {
+        return dia.atStartOfDay();
+    }
+
+    private LocalDateTime fimDoDia() {
+        return dia.plusDays(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,49 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guarda o SQL que o Hibernate prepara, para que os testes de índice rodem EXPLAIN exatamente sobre o
+ * comando que o repositório envia ao banco. Registrado com
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapturado implements StatementInspector {
+
+    private static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        comandos.add(sql);
+        return sql;
+    }
+
+    static void limpar() {
+        comandos.clear();
+    }
+
+    static List<String> capturados() {
+        return List.copyOf(comandos);
+    }
+
+    static String ultimo() {
+        assertThat(comandos).as("nenhum SQL capturado").isNotEmpty();
+        return comandos.get(comandos.size() - 1);
+    }
+
+    /**
+     * EXPLAIN do último comando capturado, com os parâmetros na ordem dos {@code ?} do SQL gerado.
+     */
+    static String explainDoUltimo(JdbcTemplate jdbcTemplate, Object... parametros) {
+        String sql = ultimo();
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parâmetros de %s", sql)
+                .isEqualTo(parametros.length);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+    }
+}
@@ -0,0 +1,150 @@
+package com.vitalcajavet.msagendamentoconsultas.repository;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.service.VeterinarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Busca por trecho sobre um cadastro sintético de 100 mil veterinários com nomes acentuados. Os dados
+ * são semeados na transação do teste e descartados no rollback.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.vitalcajavet.msagendamentoconsultas.repository.SqlCapturado")
+@Transactional
+class VeterinarioBuscaTest {
+
+    private static final int VETERINARIOS = 100_000;
+    private static final int REPETICOES = 200;
+    private static final List<String> TERMOS = List.of("joao", "CONCEI", "magalhaes 4", "derma", "simoes", "lucia ara");
+    // O menor trecho aceito: um único trigrama, o caso menos seletivo para o índice.
+    private static final List<String> TERMOS_CURTOS = List.of("jos", "ara", "lim", "der", "cir", "luc");
+
+    @Autowired
+    private VeterinarioService veterinarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void semear() {
+        jdbcTemplate.update("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                SELECT (ARRAY['João', 'José', 'Márcia', 'Conceição', 'Antônio', 'Lúcia', 'Fábio', 'Débora'])[1 + g % 8]
+                           || ' ' ||
+                       (ARRAY['Araújo', 'Simões', 'Gonçalves', 'Magalhães', 'Brandão', 'Patrício', 'Assunção', 'Lima'])[1 + (g / 8) % 8]
+                           || ' ' || g,
+                       CASE WHEN g % 2 = 0 THEN 'FEMININO' ELSE 'MASCULINO' END,
+                       'busca-' || g,
+                       (ARRAY['Clínica Geral', 'Cirurgia', 'Dermatologia', 'Cardiologia', 'Ortopedia', 'Oftalmologia'])[1 + g % 6],
+                       g % 10 <> 0,
+                       now(), now()
+                FROM generate_series(1, ?) AS g
+                """, VETERINARIOS);
+        jdbcTemplate.update("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Ana 100%_Teste', 'FEMININO', 'busca-curinga', 'Clínica Geral', true, now(), now())
+                """);
+        jdbcTemplate.execute("ANALYZE veterinarios");
+    }
+
+    @Test
+    void buscaIgnoraAcentosEMaiusculas() {
+        List<Veterinario> encontrados = veterinarioService.findByNome("joao simoes 1", 20);
+
+        assertThat(encontrados).isNotEmpty().hasSizeLessThanOrEqualTo(20);
+        assertThat(encontrados).allSatisfy(v -> assertThat(v.getNome()).startsWith("João Simões 1"));
+        assertThat(veterinarioService.findByEspecialidade("CLINICA", 5)).hasSize(5);
+    }
+
+    @Test
+    void buscaRetornaSomenteAtivos() {
+        assertThat(veterinarioService.findByNome("conceicao", 500))
+                .hasSize(500)
+                .allSatisfy(v -> assertThat(v.getAtivo()).isTrue());
+    }
+
+    @Test
+    void curingasDoLikeSaoTratadosComoTexto() {
+        assertThat(veterinarioService.findByNome("100%_", 10))
+                .extracting(Veterinario::getNome)
+                .containsExactly("Ana 100%_Teste");
+        assertThat(veterinarioService.findByNome("0%_", 10)).extracting(Veterinario::getNome)
+                .containsExactly("Ana 100%_Teste");
+    }
+
+    @Test
+    void trechoComMenosDeTresCaracteresERejeitadoSemConsultarOBanco() {
+        SqlCapturado.limpar();
+
+        for (String trecho : List.of("j", "jo", " jo ", "%")) {
+            assertThatThrownBy(() -> veterinarioService.findByNome(trecho, 20))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> veterinarioService.findByEspecialidade(trecho, 20))
+                    .isInstanceOf(BadRequestException.class);
+        }
+        assertThat(SqlCapturado.capturados()).isEmpty();
+        assertThat(veterinarioService.findByNome("jos", 20)).hasSize(20);
+    }
+
+    @Test
+    void buscaUsaIndiceDeTrigramas() {
+        SqlCapturado.limpar();
+        veterinarioService.findByNome("magalhaes 4", 20);
+
+        String plano = SqlCapturado.explainDoUltimo(jdbcTemplate, "magalhaes 4", 20);
+
+        assertThat(plano).contains("idx_veterinarios_nome_trgm");
+        assertThat(plano).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void comparaBuscaIndexadaComLikeSemIndice() {
+        medirContraLikeSemIndice("Trechos de 4+ caracteres", TERMOS);
+        medirContraLikeSemIndice("Trechos de 3 caracteres", TERMOS_CURTOS);
+    }
+
+    private void medirContraLikeSemIndice(String descricao, List<String> termos) {
+        long[] indexada = new long[REPETICOES];
+        long[] semIndice = new long[REPETICOES];
+
+        for (int i = 0; i < REPETICOES; i++) {
+            String termo = termos.get(i % termos.size());
+
+            long inicio = System.nanoTime();
+            veterinarioService.findByNome(termo, 20);
+            indexada[i] = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            jdbcTemplate.queryForList("SELECT * FROM veterinarios v WHERE LOWER(v.nome) LIKE LOWER('%' || ? || '%') "
+                    + "AND v.ativo = true", termo);
+            semIndice[i] = System.nanoTime() - inicio;
+        }
+
+        System.out.printf("%s, busca por trigramas (%d veterinários): p50=%.2fms p99=%.2fms%n",
+                descricao, VETERINARIOS, percentil(indexada, 0.50), percentil(indexada, 0.99));
+        System.out.printf("%s, LOWER(nome) LIKE sem índice: p50=%.2fms p99=%.2fms%n",
+                descricao, percentil(semIndice, 0.50), percentil(semIndice, 0.99));
+
+        assertThat(percentil(indexada, 0.50)).isLessThan(percentil(semIndice, 0.50));
+    }
+
+    private static double percentil(long[] amostras, double percentil) {
+        long[] ordenadas = amostras.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1] / 1_000_000.0;
+    }
+}
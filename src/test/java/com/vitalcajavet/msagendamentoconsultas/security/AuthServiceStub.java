@@ -0,0 +1,64 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AuthServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private volatile Duration latencia = Duration.ZERO;
+    private volatile int status = 200;
+
+    public AuthServiceStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/profile/me/", exchange -> {
+            chamadas.incrementAndGet();
+            try {
+                if (!latencia.isZero()) {
+                    Thread.sleep(latencia.toMillis());
+                }
+                byte[] body = "{\"username\":\"stub\"}".getBytes();
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int chamadas() {
+        return chamadas.get();
+    }
+
+    public void zerarChamadas() {
+        chamadas.set(0);
+    }
+
+    public void setLatencia(Duration latencia) {
+        this.latencia = latencia;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
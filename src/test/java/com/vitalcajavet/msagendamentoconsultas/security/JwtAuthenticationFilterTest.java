@@ -0,0 +1,26 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, new SimpleMeterRegistry());
+
+    @Test
+    void somenteOPrometheusDispensaOToken() {
+        assertThat(filter.shouldNotFilter(requisicao("/actuator/prometheus"))).isTrue();
+        assertThat(filter.shouldNotFilter(requisicao("/actuator/health"))).isFalse();
+        assertThat(filter.shouldNotFilter(requisicao("/actuator/metrics"))).isFalse();
+        assertThat(filter.shouldNotFilter(requisicao("/actuator"))).isFalse();
+    }
+
+    private static MockHttpServletRequest requisicao(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
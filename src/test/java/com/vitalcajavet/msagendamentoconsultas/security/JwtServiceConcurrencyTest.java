@@ -0,0 +1,111 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceConcurrencyTest {
+
+    private static final int REQUISICOES = 10;
+
+    private AuthServiceStub authService;
+    private JwtService jwtService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new AuthServiceStub();
+        authService.setLatencia(Duration.ofMillis(300));
+
+        TokenCacheProperties semCache = new TokenCacheProperties();
+        semCache.setEnabled(false);
+        JwtVerificationProperties verificationProperties = new JwtVerificationProperties();
+        AuthServiceProperties authServiceProperties = new AuthServiceProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        jwtService = new JwtService(
+                WebClient.builder().baseUrl(authService.url()).build(),
+                new TokenValidationCache(semCache, meterRegistry),
+                new LocalJwtVerifier(verificationProperties),
+                verificationProperties,
+                new AuthServiceGuard(authServiceProperties, meterRegistry),
+                authServiceProperties);
+        executor = Executors.newFixedThreadPool(REQUISICOES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        authService.close();
+    }
+
+    @Test
+    void requisicoesSimultaneasComOMesmoTokenFazemUmaUnicaChamada() throws Exception {
+        List<Future<Boolean>> resultados = disparar(i -> "Bearer mesmo-token");
+
+        for (Future<Boolean> resultado : resultados) {
+            assertThat(resultado.get()).isTrue();
+        }
+        assertThat(authService.chamadas()).isEqualTo(1);
+    }
+
+    @Test
+    void tokensDiferentesNaoSaoAgrupados() throws Exception {
+        List<Future<Boolean>> resultados = disparar(i -> "Bearer token-" + i);
+
+        for (Future<Boolean> resultado : resultados) {
+            assertThat(resultado.get()).isTrue();
+        }
+        assertThat(authService.chamadas()).isEqualTo(REQUISICOES);
+    }
+
+    @Test
+    void falhaDaChamadaCompartilhadaChegaATodosOsAguardando() throws Exception {
+        authService.setStatus(401);
+
+        List<Future<Boolean>> resultados = disparar(i -> "Bearer token-revogado");
+
+        for (Future<Boolean> resultado : resultados) {
+            assertThatThrownBy(resultado::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(JwtValidationException.class);
+        }
+        assertThat(authService.chamadas()).isEqualTo(1);
+    }
+
+    private List<Future<Boolean>> disparar(IntFunction<String> token) throws InterruptedException {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        for (int i = 0; i < REQUISICOES; i++) {
+            String tokenDaRequisicao = token.apply(i);
+            Callable<Boolean> validacao = () -> {
+                largada.await();
+                return jwtService.validateToken(tokenDaRequisicao);
+            };
+            resultados.add(executor.submit(validacao));
+        }
+
+        largada.countDown();
+        return resultados;
+    }
+}
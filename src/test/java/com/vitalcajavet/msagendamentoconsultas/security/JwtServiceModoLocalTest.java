@@ -0,0 +1,100 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.security.KeyPair;
+import java.time.Duration;
+
+import static com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifierTest.daqui;
+import static com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifierTest.gerarChaves;
+import static com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifierTest.jwks;
+import static com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifierTest.propriedades;
+import static com.vitalcajavet.msagendamentoconsultas.security.LocalJwtVerifierTest.token;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Modo LOCAL com o stub do auth-service no lugar do serviço real: o token de chave conhecida nunca sai do
+ * processo e o de chave desconhecida só chega ao serviço com {@code auth.jwt.remote-fallback} ligado.
+ */
+class JwtServiceModoLocalTest {
+
+    private AuthServiceStub authService;
+    private KeyPair chaves;
+    private KeyPair chavesRotacionadas;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new AuthServiceStub();
+        chaves = gerarChaves();
+        chavesRotacionadas = gerarChaves();
+    }
+
+    @AfterEach
+    void tearDown() {
+        authService.close();
+    }
+
+    @Test
+    void chaveConhecidaValidaSemChamarOServico() {
+        JwtService jwtService = jwtService(true);
+
+        assertThat(jwtService.validateToken("Bearer " + token("principal", chaves)
+                .setExpiration(daqui(Duration.ofMinutes(5))).compact())).isTrue();
+        assertThat(authService.chamadas()).isZero();
+    }
+
+    @Test
+    void semFallbackKidDesconhecidoERejeitadoSemChamarOServico() {
+        JwtService jwtService = jwtService(false);
+        String rotacionado = "Bearer " + token("rotacionada", chavesRotacionadas)
+                .setExpiration(daqui(Duration.ofMinutes(5))).compact();
+
+        assertThatThrownBy(() -> jwtService.validateToken(rotacionado))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessage("Token assinado com chave não reconhecida");
+        assertThat(authService.chamadas()).isZero();
+    }
+
+    @Test
+    void comFallbackKidDesconhecidoEValidadoNoServico() {
+        JwtService jwtService = jwtService(true);
+        String rotacionado = "Bearer " + token("rotacionada", chavesRotacionadas)
+                .setExpiration(daqui(Duration.ofMinutes(5))).compact();
+
+        assertThat(jwtService.validateToken(rotacionado)).isTrue();
+        assertThat(authService.chamadas()).isEqualTo(1);
+    }
+
+    @Test
+    void fallbackNaoCobreAssinaturaInvalidaDeKidConhecido() {
+        JwtService jwtService = jwtService(true);
+        String forjado = "Bearer " + token("principal", chavesRotacionadas)
+                .setExpiration(daqui(Duration.ofMinutes(5))).compact();
+
+        assertThatThrownBy(() -> jwtService.validateToken(forjado)).isInstanceOf(JwtValidationException.class);
+        assertThat(authService.chamadas()).isZero();
+    }
+
+    private JwtService jwtService(boolean remoteFallback) {
+        JwtVerificationProperties properties = propriedades(jwks("principal", chaves));
+        properties.setRemoteFallback(remoteFallback);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthServiceProperties authServiceProperties = new AuthServiceProperties();
+        return new JwtService(
+                WebClient.builder().baseUrl(authService.url()).build(),
+                new TokenValidationCache(new TokenCacheProperties(), meterRegistry),
+                new LocalJwtVerifier(properties),
+                properties,
+                new AuthServiceGuard(authServiceProperties, meterRegistry),
+                authServiceProperties);
+    }
+}
@@ -0,0 +1,191 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.vitalcajavet.msagendamentoconsultas.config.AuthServiceProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.TokenCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.config.WebClientConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceResilienceTest {
+
+    private AuthServiceStub authService;
+    private AuthServiceProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthServiceGuard guard;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authService = new AuthServiceStub();
+
+        properties = new AuthServiceProperties();
+        properties.setUrl(authService.url());
+        properties.setConnectTimeout(Duration.ofMillis(100));
+        properties.setReadTimeout(Duration.ofMillis(200));
+        properties.setMaxConcurrentCalls(2);
+        properties.setMaxWaitForPermit(Duration.ZERO);
+        properties.getCircuitBreaker().setFailureThreshold(3);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(500));
+
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new AuthServiceGuard(properties, meterRegistry);
+        jwtService = jwtService(properties, guard);
+    }
+
+    private JwtService jwtService(AuthServiceProperties authServiceProperties, AuthServiceGuard authServiceGuard) {
+        TokenCacheProperties semCache = new TokenCacheProperties();
+        semCache.setEnabled(false);
+        JwtVerificationProperties verificationProperties = new JwtVerificationProperties();
+
+        return new JwtService(
+                new WebClientConfig().webClient(WebClient.builder(), authServiceProperties),
+                new TokenValidationCache(semCache, meterRegistry),
+                new LocalJwtVerifier(verificationProperties),
+                verificationProperties,
+                authServiceGuard,
+                authServiceProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authService.close();
+    }
+
+    @Test
+    void chamadaLentaEstouraOTimeout() {
+        authService.setLatencia(Duration.ofSeconds(2));
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> jwtService.validateToken("Bearer lento"))
+                .isInstanceOf(AuthServiceUnavailableException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void respostaLentaEstouraOReadTimeoutDoClienteAntesDoTimeoutTotal() {
+        AuthServiceProperties timeoutTotalLongo = new AuthServiceProperties();
+        timeoutTotalLongo.setUrl(authService.url());
+        timeoutTotalLongo.setConnectTimeout(Duration.ofSeconds(5));
+        timeoutTotalLongo.setReadTimeout(Duration.ofMillis(200));
+        JwtService servico = jwtService(timeoutTotalLongo, new AuthServiceGuard(timeoutTotalLongo, meterRegistry));
+        authService.setLatencia(Duration.ofSeconds(10));
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> servico.validateToken("Bearer lento"))
+                .isInstanceOf(AuthServiceUnavailableException.class);
+
+        // Só o responseTimeout do WebClientConfig interrompe a chamada antes dos 5,2 s do block(totalTimeout).
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void circuitoAbreAposFalhasConsecutivasEFalhaRapido() {
+        authService.setLatencia(Duration.ofSeconds(2));
+
+        for (int i = 0; i < 3; i++) {
+            String token = "Bearer lento-" + i;
+            assertThatThrownBy(() -> jwtService.validateToken(token))
+                    .isInstanceOf(AuthServiceUnavailableException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(AuthServiceGuard.CircuitState.OPEN);
+        int chamadasAntes = authService.chamadas();
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> jwtService.validateToken("Bearer outro"))
+                .isInstanceOf(AuthServiceUnavailableException.class)
+                .hasMessageContaining("circuito aberto");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(50));
+        assertThat(authService.chamadas()).isEqualTo(chamadasAntes);
+        assertThat(meterRegistry.get("auth.service.rejections").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("auth.service.circuit.state").tag("state", "open").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void circuitoFechaQuandoOServicoVolta() throws Exception {
+        authService.setLatencia(Duration.ofSeconds(2));
+        for (int i = 0; i < 3; i++) {
+            String token = "Bearer lento-" + i;
+            assertThatThrownBy(() -> jwtService.validateToken(token))
+                    .isInstanceOf(AuthServiceUnavailableException.class);
+        }
+
+        authService.setLatencia(Duration.ZERO);
+        Thread.sleep(properties.getCircuitBreaker().getOpenDuration().toMillis() + 50);
+
+        assertThat(jwtService.validateToken("Bearer recuperado")).isTrue();
+        assertThat(guard.getState()).isEqualTo(AuthServiceGuard.CircuitState.CLOSED);
+    }
+
+    @Test
+    void tokenInvalidoNaoContaComoFalhaDoServico() {
+        authService.setStatus(401);
+
+        for (int i = 0; i < 5; i++) {
+            String token = "Bearer invalido-" + i;
+            assertThatThrownBy(() -> jwtService.validateToken(token))
+                    .isInstanceOf(JwtValidationException.class)
+                    .isNotInstanceOf(AuthServiceUnavailableException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(AuthServiceGuard.CircuitState.CLOSED);
+    }
+
+    @Test
+    void bulkheadRejeitaChamadasAlemDoLimite() throws Exception {
+        // Em uma JVM fria a primeira conexão do WebClient (event loop, classes do Netty) passa sozinha do
+        // timeout de leitura de 200 ms; sem aquecer, as duas chamadas admitidas falhariam por timeout.
+        jwtService.validateToken("Bearer aquecimento");
+        authService.setLatencia(Duration.ofMillis(150));
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                String token = "Bearer paralelo-" + i;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return jwtService.validateToken(token);
+                }));
+            }
+            largada.countDown();
+
+            int aceitas = 0;
+            int rejeitadas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                try {
+                    resultado.get();
+                    aceitas++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(AuthServiceUnavailableException.class);
+                    rejeitadas++;
+                }
+            }
+
+            assertThat(aceitas).isEqualTo(2);
+            assertThat(rejeitadas).isEqualTo(3);
+            assertThat(guard.getRejeicoesBulkhead()).isEqualTo(3.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
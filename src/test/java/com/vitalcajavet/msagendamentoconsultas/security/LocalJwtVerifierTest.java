@@ -0,0 +1,168 @@
+package com.vitalcajavet.msagendamentoconsultas.security;
+
+import com.vitalcajavet.msagendamentoconsultas.config.JwtVerificationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJwtVerifierTest {
+
+    private static final Duration SKEW = Duration.ofSeconds(30);
+
+    private KeyPair chaves;
+    private KeyPair outrasChaves;
+    private LocalJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        chaves = gerarChaves();
+        outrasChaves = gerarChaves();
+        verifier = new LocalJwtVerifier(propriedades(jwks("principal", chaves)));
+    }
+
+    @Test
+    void aceitaTokenAssinadoComAChaveDoKid() {
+        Optional<Claims> claims = verifier.verificar("Bearer " + token("principal", chaves)
+                .setExpiration(daqui(Duration.ofMinutes(5)))
+                .compact());
+
+        assertThat(claims).map(Claims::getSubject).contains("usuario");
+    }
+
+    @Test
+    void rejeitaAssinaturaDeOutraChave() {
+        String forjado = token("principal", outrasChaves)
+                .setExpiration(daqui(Duration.ofMinutes(5)))
+                .compact();
+
+        assertThatThrownBy(() -> verifier.verificar(forjado))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessageStartingWith("Token inválido");
+    }
+
+    @Test
+    void rejeitaPayloadAlteradoDepoisDaAssinatura() {
+        String[] partes = token("principal", chaves).setExpiration(daqui(Duration.ofMinutes(5))).compact().split("\\.");
+        String outroPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> verifier.verificar(partes[0] + "." + outroPayload + "." + partes[2]))
+                .isInstanceOf(JwtValidationException.class);
+    }
+
+    @Test
+    void rejeitaTokenExpirado() {
+        String expirado = token("principal", chaves)
+                .setExpiration(daqui(Duration.ofMinutes(-5)))
+                .compact();
+
+        assertThatThrownBy(() -> verifier.verificar(expirado))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessage("Token expirado");
+    }
+
+    @Test
+    void rejeitaNotBeforeNoFuturo() {
+        String prematuro = token("principal", chaves)
+                .setNotBefore(daqui(Duration.ofMinutes(5)))
+                .setExpiration(daqui(Duration.ofMinutes(10)))
+                .compact();
+
+        assertThatThrownBy(() -> verifier.verificar(prematuro))
+                .isInstanceOf(JwtValidationException.class)
+                .hasMessage("Token ainda não é válido");
+    }
+
+    @Test
+    void kidDesconhecidoFicaSemResposta() {
+        String outroKid = token("rotacionada", outrasChaves)
+                .setExpiration(daqui(Duration.ofMinutes(5)))
+                .compact();
+
+        assertThat(verifier.verificar(outroKid)).isEmpty();
+    }
+
+    @Test
+    void toleranciaDeRelogioValeAteOLimite() {
+        String expiradoDentroDaTolerancia = token("principal", chaves)
+                .setExpiration(daqui(SKEW.minusSeconds(10).negated()))
+                .compact();
+        String expiradoForaDaTolerancia = token("principal", chaves)
+                .setExpiration(daqui(SKEW.plusSeconds(10).negated()))
+                .compact();
+        String naoAntesDentroDaTolerancia = token("principal", chaves)
+                .setNotBefore(daqui(SKEW.minusSeconds(10)))
+                .setExpiration(daqui(Duration.ofMinutes(5)))
+                .compact();
+        String naoAntesForaDaTolerancia = token("principal", chaves)
+                .setNotBefore(daqui(SKEW.plusSeconds(10)))
+                .setExpiration(daqui(Duration.ofMinutes(5)))
+                .compact();
+
+        assertThat(verifier.verificar(expiradoDentroDaTolerancia)).isPresent();
+        assertThat(verifier.verificar(naoAntesDentroDaTolerancia)).isPresent();
+        assertThatThrownBy(() -> verifier.verificar(expiradoForaDaTolerancia)).hasMessage("Token expirado");
+        assertThatThrownBy(() -> verifier.verificar(naoAntesForaDaTolerancia)).hasMessage("Token ainda não é válido");
+    }
+
+    static KeyPair gerarChaves() throws Exception {
+        KeyPairGenerator gerador = KeyPairGenerator.getInstance("RSA");
+        gerador.initialize(2048);
+        return gerador.generateKeyPair();
+    }
+
+    static JwtBuilder token(String kid, KeyPair chaves) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("usuario")
+                .signWith(chaves.getPrivate(), SignatureAlgorithm.RS256);
+    }
+
+    static ByteArrayResource jwks(String kid, KeyPair chaves) {
+        RSAPublicKey chave = (RSAPublicKey) chaves.getPublic();
+        String json = """
+                {"keys": [{"kty": "RSA", "use": "sig", "kid": "%s", "n": "%s", "e": "%s"}]}
+                """.formatted(kid, base64Url(chave.getModulus()), base64Url(chave.getPublicExponent()));
+        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8), "jwks de teste");
+    }
+
+    static JwtVerificationProperties propriedades(ByteArrayResource jwks) {
+        JwtVerificationProperties properties = new JwtVerificationProperties();
+        properties.setMode(JwtVerificationProperties.Mode.LOCAL);
+        properties.setJwksFile(jwks);
+        properties.setClockSkew(SKEW);
+        return properties;
+    }
+
+    static Date daqui(Duration deslocamento) {
+        return Date.from(Instant.now().plus(deslocamento));
+    }
+
+    private static String base64Url(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            byte[] semSinal = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, semSinal, 0, semSinal.length);
+            bytes = semSinal;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
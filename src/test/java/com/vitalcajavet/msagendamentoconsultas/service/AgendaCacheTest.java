@@ -0,0 +1,158 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Cada tipo de escrita passa pelo serviço com commit real e a leitura seguinte do cache já enxerga o resultado.
+ * O dia é aquecido antes de cada escrita, para que a leitura posterior só esteja certa se a entrada foi descartada.
+ */
+@SpringBootTest(properties = {
+        "app.horario-comercial.inicio=8",
+        "app.horario-comercial.fim=18",
+        "app.horario-comercial.horas-minimas-cancelamento=2"
+})
+class AgendaCacheTest {
+
+    private static final LocalDate DIA = LocalDate.now().plusDays(2);
+    private static final LocalDate OUTRO_DIA = LocalDate.now().plusDays(3);
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private AgendaCache agendaCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long veterinarioId;
+
+    @BeforeEach
+    void setUp() {
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Agenda', 'FEMININO', ?, 'Clinica geral', true, now(), now())
+                RETURNING id
+                """, Long.class, "agenda-" + System.nanoTime());
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        agendaCache.aoAlterarAgenda(new AgendaAlterada(Set.of(DIA, OUTRO_DIA)));
+    }
+
+    @Test
+    void agendamentoApareceNoDiaJaEmCache() {
+        assertThat(doVeterinario(DIA)).isEmpty();
+
+        Long id = agendar(DIA.atTime(10, 0));
+
+        assertThat(doVeterinario(DIA)).extracting(ConsultaResponseDTO::getId).containsExactly(id);
+        assertThat(agendaCache.diasEmCache()).contains(DIA);
+    }
+
+    @Test
+    void edicaoMoveAConsultaEntreOsDias() {
+        Long id = agendar(DIA.atTime(10, 0));
+        assertThat(doVeterinario(DIA)).hasSize(1);
+        assertThat(doVeterinario(OUTRO_DIA)).isEmpty();
+
+        consultaService.atualizarConsulta(id, requisicao(OUTRO_DIA.atTime(11, 0)));
+
+        assertThat(doVeterinario(DIA)).isEmpty();
+        assertThat(doVeterinario(OUTRO_DIA))
+                .extracting(ConsultaResponseDTO::getId, ConsultaResponseDTO::getDataHora)
+                .containsExactly(tuple(id, OUTRO_DIA.atTime(11, 0)));
+    }
+
+    @Test
+    void cancelamentoAtualizaODiaESaiDasFuturas() {
+        Long id = agendar(DIA.atTime(10, 0));
+        CursorPagina antesDaConsulta = new CursorPagina(DIA.atTime(9, 59), 0L);
+        assertThat(consultaService.listarConsultasFuturas(antesDaConsulta, 1).itens())
+                .extracting(ConsultaResponseDTO::getId).containsExactly(id);
+
+        consultaService.cancelarConsulta(id);
+
+        assertThat(doVeterinario(DIA)).extracting(ConsultaResponseDTO::getStatus)
+                .containsExactly(StatusConsulta.CANCELADA);
+        assertThat(consultaService.listarConsultasFuturas(antesDaConsulta, 1).itens())
+                .extracting(ConsultaResponseDTO::getId).doesNotContain(id);
+    }
+
+    @Test
+    void mudancaDeStatusAtualizaODia() {
+        Long id = agendar(DIA.atTime(10, 0));
+        assertThat(doVeterinario(DIA)).extracting(ConsultaResponseDTO::getStatus)
+                .containsExactly(StatusConsulta.AGENDADA);
+
+        consultaService.atualizarStatus(id, StatusConsulta.REALIZADA);
+
+        assertThat(doVeterinario(DIA)).extracting(ConsultaResponseDTO::getStatus)
+                .containsExactly(StatusConsulta.REALIZADA);
+    }
+
+    @Test
+    void escritaForaDoServicoSoApareceAposInvalidacao() {
+        assertThat(doVeterinario(DIA)).isEmpty();
+
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                VALUES (1, ?, ?, 'ROTINA', 'AGENDADA', now(), now())
+                """, veterinarioId, DIA.atTime(15, 0));
+
+        assertThat(doVeterinario(DIA)).isEmpty();
+
+        agendaCache.aoAlterarAgenda(AgendaAlterada.nos(DIA.atTime(15, 0)));
+
+        assertThat(doVeterinario(DIA)).hasSize(1);
+    }
+
+    @Test
+    void respostaNaoCompartilhaObjetosComOCache() {
+        agendar(DIA.atTime(10, 0));
+        doVeterinario(DIA).forEach(c -> c.setNomeAnimal("alterado na resposta"));
+
+        assertThat(doVeterinario(DIA)).extracting(ConsultaResponseDTO::getNomeAnimal)
+                .doesNotContain("alterado na resposta");
+    }
+
+    private List<ConsultaResponseDTO> doVeterinario(LocalDate dia) {
+        return agendaCache.doDia(dia).stream()
+                .filter(c -> c.getVeterinarioId().equals(veterinarioId))
+                .toList();
+    }
+
+    private Long agendar(LocalDateTime dataHora) {
+        return consultaService.agendarConsulta(requisicao(dataHora)).getId();
+    }
+
+    private ConsultaRequestDTO requisicao(LocalDateTime dataHora) {
+        ConsultaRequestDTO request = new ConsultaRequestDTO();
+        request.setAnimalId(1L);
+        request.setVeterinarioId(veterinarioId);
+        request.setDataHora(dataHora);
+        request.setTipo(TipoConsulta.ROTINA);
+        return request;
+    }
+}
@@ -0,0 +1,161 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Agendamentos concorrentes contra o Postgres local, com commit real (sem rollback do teste):
+ * os veterinários e consultas criados aqui são removidos ao final.
+ */
+@SpringBootTest(properties = {
+        "app.horario-comercial.inicio=8",
+        "app.horario-comercial.fim=18"
+})
+class AgendamentoConcorrenteTest {
+
+    private static final int TENTATIVAS_MESMO_HORARIO = 300;
+    private static final int VETERINARIOS = 16;
+    private static final int AGENDAMENTOS_POR_VETERINARIO = 60;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> veterinarios = new ArrayList<>();
+
+    @AfterEach
+    void limpar() {
+        for (Long veterinarioId : veterinarios) {
+            jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+            jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        }
+    }
+
+    @Test
+    void apenasUmAgendamentoVenceParaOMesmoHorario() throws Exception {
+        Long veterinarioId = criarVeterinario();
+        LocalDateTime horario = LocalDate.now().plusDays(30).atTime(10, 0);
+
+        List<Future<Boolean>> resultados = disparar(TENTATIVAS_MESMO_HORARIO,
+                i -> agendar(veterinarioId, horario, i));
+
+        int sucessos = 0;
+        int conflitos = 0;
+        for (Future<Boolean> resultado : resultados) {
+            try {
+                resultado.get();
+                sucessos++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                conflitos++;
+            }
+        }
+
+        assertThat(sucessos).isEqualTo(1);
+        assertThat(conflitos).isEqualTo(TENTATIVAS_MESMO_HORARIO - 1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM consultas WHERE veterinario_id = ? AND status <> 'CANCELADA'",
+                Integer.class, veterinarioId)).isEqualTo(1);
+    }
+
+    @Test
+    void indiceUnicoRecusaDuplicataQueNaoPassaPelaTrava() {
+        Long veterinarioId = criarVeterinario();
+        LocalDateTime horario = LocalDate.now().plusDays(30).atTime(11, 0);
+        String insert = "INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at) "
+                + "VALUES (1, ?, ?, 'ROTINA', 'AGENDADA', now(), now())";
+
+        jdbcTemplate.update(insert, veterinarioId, horario);
+
+        assertThatThrownBy(() -> jdbcTemplate.update(insert, veterinarioId, horario))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void veterinariosDiferentesAgendamEmParalelo() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < VETERINARIOS; i++) {
+            ids.add(criarVeterinario());
+        }
+        LocalDateTime primeiroHorario = LocalDate.now().plusDays(60).atTime(8, 0);
+        int total = VETERINARIOS * AGENDAMENTOS_POR_VETERINARIO;
+
+        long inicio = System.nanoTime();
+        List<Future<Boolean>> resultados = disparar(total, i -> agendar(
+                ids.get(i % VETERINARIOS),
+                primeiroHorario.plusMinutes(i / VETERINARIOS),
+                i));
+        for (Future<Boolean> resultado : resultados) {
+            assertThat(resultado.get()).isTrue();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("Agendamentos em veterinarios diferentes: %d em %.2fs (%.0f/s)%n",
+                total, segundos, total / segundos);
+    }
+
+    private boolean agendar(Long veterinarioId, LocalDateTime horario, int animal) {
+        ConsultaRequestDTO request = new ConsultaRequestDTO(
+                (long) animal + 1, veterinarioId, horario, TipoConsulta.ROTINA);
+        return consultaService.agendarConsulta(request).getId() != null;
+    }
+
+    private List<Future<Boolean>> disparar(int quantidade, Tentativa tentativa) {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                int indice = i;
+                Callable<Boolean> chamada = () -> {
+                    largada.await();
+                    return tentativa.executar(indice);
+                };
+                resultados.add(executor.submit(chamada));
+            }
+            largada.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        return resultados;
+    }
+
+    private Long criarVeterinario() {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Concorrencia', 'FEMININO', ?, 'Clinica geral', true, now(), now())
+                RETURNING id
+                """, Long.class, "teste-" + System.nanoTime());
+        veterinarios.add(id);
+        return id;
+    }
+
+    @FunctionalInterface
+    private interface Tentativa {
+        boolean executar(int indice);
+    }
+}
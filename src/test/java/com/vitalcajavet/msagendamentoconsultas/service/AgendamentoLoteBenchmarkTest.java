@@ -0,0 +1,104 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ModoLote;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a vazão de uma campanha importada item a item com a mesma campanha enviada em lotes.
+ * Roda com {@code ./mvnw -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "app.horario-comercial.inicio=8",
+        "app.horario-comercial.fim=18"
+})
+class AgendamentoLoteBenchmarkTest {
+
+    private static final int VETERINARIOS = 10;
+    private static final int CONSULTAS = 5000;
+    private static final int TAMANHO_LOTE = 1000;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private ConsultaLoteService consultaLoteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> veterinarios = new ArrayList<>();
+
+    @AfterEach
+    void limpar() {
+        for (Long veterinarioId : veterinarios) {
+            jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+            jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        }
+    }
+
+    @Test
+    void loteSuperaChamadasIndividuais() {
+        List<ConsultaRequestDTO> individuais = campanha(LocalDate.now().plusDays(100));
+        List<ConsultaRequestDTO> emLote = campanha(LocalDate.now().plusDays(200));
+
+        long inicio = System.nanoTime();
+        for (ConsultaRequestDTO consulta : individuais) {
+            consultaService.agendarConsulta(consulta);
+        }
+        double segundosIndividuais = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        inicio = System.nanoTime();
+        int agendadas = 0;
+        for (int i = 0; i < emLote.size(); i += TAMANHO_LOTE) {
+            agendadas += consultaLoteService.agendarLote(new LoteConsultasRequestDTO(ModoLote.TUDO_OU_NADA,
+                    emLote.subList(i, Math.min(i + TAMANHO_LOTE, emLote.size())))).getAgendadas();
+        }
+        double segundosLote = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("Individual: %d consultas em %.2fs (%.0f/s)%n",
+                CONSULTAS, segundosIndividuais, CONSULTAS / segundosIndividuais);
+        System.out.printf("Lote de %d: %d consultas em %.2fs (%.0f/s)%n",
+                TAMANHO_LOTE, CONSULTAS, segundosLote, CONSULTAS / segundosLote);
+
+        assertThat(agendadas).isEqualTo(CONSULTAS);
+        assertThat(segundosLote).isLessThan(segundosIndividuais);
+    }
+
+    private List<ConsultaRequestDTO> campanha(LocalDate primeiroDia) {
+        if (veterinarios.isEmpty()) {
+            for (int i = 0; i < VETERINARIOS; i++) {
+                veterinarios.add(jdbcTemplate.queryForObject("""
+                        INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                        VALUES ('Campanha', 'FEMININO', ?, 'Vacinação', true, now(), now())
+                        RETURNING id
+                        """, Long.class, "campanha-" + System.nanoTime()));
+            }
+        }
+
+        List<ConsultaRequestDTO> consultas = new ArrayList<>(CONSULTAS);
+        LocalDateTime abertura = primeiroDia.atTime(8, 0);
+        for (int i = 0; i < CONSULTAS; i++) {
+            int porVeterinario = i / VETERINARIOS;
+            LocalDateTime horario = abertura.plusDays(porVeterinario / 600).plusMinutes(porVeterinario % 600);
+            consultas.add(new ConsultaRequestDTO((long) i + 1, veterinarios.get(i % VETERINARIOS),
+                    horario, TipoConsulta.ROTINA));
+        }
+        return consultas;
+    }
+}
@@ -0,0 +1,185 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.exception.NotFoundException;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.Sexo;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Várias recepções editando o mesmo veterinário ao mesmo tempo, cada uma a partir do que leu. Uma edição
+ * baseada em uma versão antiga nunca sobrescreve outra: recebe 409, relê e refaz a alteração.
+ */
+@SpringBootTest(properties = {
+        "app.retentativa.max-tentativas=5",
+        "app.retentativa.atraso-inicial=5ms",
+        "app.retentativa.atraso-maximo=100ms"
+})
+class AtualizacaoConcorrenteTest {
+
+    private static final int RECEPCOES = 16;
+
+    @Autowired
+    private VeterinarioService veterinarioService;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long veterinarioId;
+
+    @BeforeEach
+    void setUp() {
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Original', 'FEMININO', ?, '', true, now(), now())
+                RETURNING id
+                """, Long.class, "versao-" + System.nanoTime());
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+    }
+
+    @Test
+    void edicoesDaMesmaVersaoLidaSoUmaVence() throws Exception {
+        Veterinario lido = veterinarioService.findById(veterinarioId).orElseThrow();
+
+        List<Future<Veterinario>> resultados = emParalelo(recepcao -> () ->
+                veterinarioService.update(veterinarioId, edicao(lido, "Edicao " + recepcao, lido.getEspecialidade())));
+
+        List<String> vencedores = new ArrayList<>();
+        int conflitos = 0;
+        for (Future<Veterinario> resultado : resultados) {
+            try {
+                vencedores.add(resultado.get().getNome());
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                conflitos++;
+            }
+        }
+
+        assertThat(vencedores).hasSize(1);
+        assertThat(conflitos).isEqualTo(RECEPCOES - 1);
+        assertThat(nomeNoBanco()).isEqualTo(vencedores.get(0));
+    }
+
+    @Test
+    void lerAlterarEGravarNaoPerdeEdicoes() throws Exception {
+        List<Future<Veterinario>> resultados = emParalelo(recepcao -> () -> {
+            while (true) {
+                Veterinario lido = veterinarioService.findById(veterinarioId).orElseThrow();
+                try {
+                    return veterinarioService.update(veterinarioId,
+                            edicao(lido, lido.getNome(), lido.getEspecialidade() + "[" + recepcao + "]"));
+                } catch (ConflictException e) {
+                    // Outra recepção gravou antes: relê e refaz a edição sobre a versão nova.
+                }
+            }
+        });
+        for (Future<Veterinario> resultado : resultados) {
+            resultado.get();
+        }
+
+        String especialidade = jdbcTemplate.queryForObject(
+                "SELECT especialidade FROM veterinarios WHERE id = ?", String.class, veterinarioId);
+        for (int recepcao = 0; recepcao < RECEPCOES; recepcao++) {
+            assertThat(especialidade).contains("[" + recepcao + "]");
+        }
+    }
+
+    @Test
+    void edicaoSemVersaoContinuaSendoAplicada() {
+        Veterinario lido = veterinarioService.findById(veterinarioId).orElseThrow();
+        veterinarioService.update(veterinarioId, edicao(lido, "Primeira", ""));
+
+        Veterinario semVersao = edicao(lido, "Sem versao", "");
+        semVersao.setVersion(null);
+        veterinarioService.update(veterinarioId, semVersao);
+
+        assertThat(nomeNoBanco()).isEqualTo("Sem versao");
+    }
+
+    @Test
+    void consultaAtualizadaAPartirDeVersaoAntigaRecebeConflito() {
+        Long consultaId = jdbcTemplate.queryForObject("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                VALUES (1, ?, ?, 'ROTINA', 'AGENDADA', now(), now())
+                RETURNING id
+                """, Long.class, veterinarioId, LocalDateTime.now().plusDays(3));
+        long versao = jdbcTemplate.queryForObject("SELECT version FROM consultas WHERE id = ?", Long.class, consultaId);
+
+        ConsultaRequestDTO request = new ConsultaRequestDTO(2L, veterinarioId, LocalDateTime.now().plusDays(4),
+                TipoConsulta.ROTINA, versao - 1);
+
+        assertThatThrownBy(() -> consultaService.atualizarConsulta(consultaId, request))
+                .isInstanceOf(ConflictException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT animal_id FROM consultas WHERE id = ?", Long.class, consultaId))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void consultaInexistenteNaoEncontrada() {
+        ConsultaRequestDTO request = new ConsultaRequestDTO(1L, veterinarioId, LocalDateTime.now().plusDays(1),
+                TipoConsulta.ROTINA);
+
+        assertThatThrownBy(() -> consultaService.atualizarConsulta(-1L, request))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private <T> List<Future<T>> emParalelo(IntFunction<Callable<T>> tarefa) {
+        ExecutorService executor = Executors.newFixedThreadPool(RECEPCOES);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<T>> resultados = new ArrayList<>();
+        for (int recepcao = 0; recepcao < RECEPCOES; recepcao++) {
+            Callable<T> alteracao = tarefa.apply(recepcao);
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return alteracao.call();
+            }));
+        }
+        largada.countDown();
+        executor.shutdown();
+        return resultados;
+    }
+
+    private static Veterinario edicao(Veterinario lido, String nome, String especialidade) {
+        Veterinario edicao = new Veterinario();
+        edicao.setNome(nome);
+        edicao.setSexo(Sexo.FEMININO);
+        edicao.setCpf(lido.getCpf());
+        edicao.setEspecialidade(especialidade);
+        edicao.setAtivo(true);
+        edicao.setVersion(lido.getVersion());
+        return edicao;
+    }
+
+    private String nomeNoBanco() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM veterinarios WHERE id = ?", String.class, veterinarioId);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CargaNoChamadorTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void cargaRodaNaThreadDoChamadorSemSegurarMonitores() {
+        AtomicReference<Thread> threadDaCarga = new AtomicReference<>();
+        AtomicReference<MonitorInfo[]> monitores = new AtomicReference<>();
+
+        String valor = CargaNoChamador.obter(cache, "chave", chave -> {
+            threadDaCarga.set(Thread.currentThread());
+            monitores.set(ManagementFactory.getThreadMXBean()
+                    .getThreadInfo(new long[]{Thread.currentThread().threadId()}, true, false)[0]
+                    .getLockedMonitors());
+            return "carregado";
+        });
+
+        assertThat(valor).isEqualTo("carregado");
+        assertThat(threadDaCarga.get()).isSameAs(Thread.currentThread());
+        assertThat(monitores.get()).isEmpty();
+    }
+
+    @Test
+    void leiturasConcorrentesCarregamUmaVez() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+
+        CompletableFuture<String> primeira = CompletableFuture.supplyAsync(() ->
+                CargaNoChamador.obter(cache, "chave", chave -> {
+                    cargas.incrementAndGet();
+                    carregando.countDown();
+                    aguardar(liberarCarga);
+                    return "carregado";
+                }));
+        assertThat(carregando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> segunda = CompletableFuture.supplyAsync(() ->
+                CargaNoChamador.obter(cache, "chave", chave -> {
+                    cargas.incrementAndGet();
+                    return "outra carga";
+                }));
+        liberarCarga.countDown();
+
+        assertThat(primeira.get(5, TimeUnit.SECONDS)).isEqualTo("carregado");
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isEqualTo("carregado");
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    void falhaNaCargaNaoFicaNoCache() {
+        assertThatThrownBy(() -> CargaNoChamador.obter(cache, "chave", chave -> {
+            throw new IllegalStateException("banco fora");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("banco fora");
+
+        assertThat(CargaNoChamador.obter(cache, "chave", chave -> "carregado")).isEqualTo("carregado");
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
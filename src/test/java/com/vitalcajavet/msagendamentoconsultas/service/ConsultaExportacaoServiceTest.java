@@ -0,0 +1,115 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.FormatoExportacao;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exporta um período com centenas de milhares de consultas e confere que o heap vivo não cresce com
+ * o volume: a cada bloco de linhas escritas força um GC e registra o maior heap ocupado.
+ */
+@SpringBootTest
+@Transactional
+class ConsultaExportacaoServiceTest {
+
+    private static final int CONSULTAS = 400_000;
+    private static final int LINHAS_POR_AMOSTRA = 50_000;
+    private static final long CRESCIMENTO_MAXIMO_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private ConsultaExportacaoService exportacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+
+    @BeforeEach
+    void semear() {
+        inicio = LocalDate.of(2030, 1, 1).atStartOfDay();
+        fim = inicio.plusYears(1);
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT (g % 5000) + 1,
+                       (g % 50) + 1,
+                       ?::timestamp + (((g / 50) % 360) || ' days')::interval + ((g / 18000) || ' minutes')::interval,
+                       CASE WHEN g % 10 = 0 THEN 'EMERGENCIA' ELSE 'ROTINA' END,
+                       CASE WHEN g % 7 = 0 THEN 'CANCELADA' ELSE 'AGENDADA' END,
+                       now(), now()
+                FROM generate_series(1, ?) AS g
+                """, inicio, CONSULTAS);
+    }
+
+    @Test
+    void exportacaoNdjsonMantemHeapEstavel() throws Exception {
+        AmostradorDeHeap saida = new AmostradorDeHeap();
+
+        long linhas = exportacaoService.exportar(inicio, fim, null, FormatoExportacao.NDJSON, saida);
+
+        assertThat(linhas).isEqualTo(CONSULTAS);
+        assertThat(saida.linhas).isEqualTo(CONSULTAS);
+        assertThat(saida.amostras).isGreaterThanOrEqualTo(CONSULTAS / LINHAS_POR_AMOSTRA);
+        assertThat(saida.maiorHeap - saida.heapInicial)
+                .as("crescimento do heap vivo durante a exportação")
+                .isLessThan(CRESCIMENTO_MAXIMO_BYTES);
+    }
+
+    @Test
+    void exportacaoCsvTemCabecalhoEFiltraStatus() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = exportacaoService.exportar(inicio, inicio.plusDays(1), StatusConsulta.CANCELADA,
+                FormatoExportacao.CSV, saida);
+
+        String[] conteudo = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(conteudo[0]).startsWith("id,animalId,veterinarioId");
+        assertThat(conteudo).hasSize((int) linhas + 1);
+        assertThat(linhas).isPositive();
+        for (int i = 1; i < conteudo.length; i++) {
+            assertThat(conteudo[i]).contains(",CANCELADA,");
+        }
+    }
+
+    private static final class AmostradorDeHeap extends OutputStream {
+
+        private final long heapInicial = heapVivo();
+        private long maiorHeap = heapInicial;
+        private long linhas;
+        private int amostras;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++linhas % LINHAS_POR_AMOSTRA == 0) {
+                maiorHeap = Math.max(maiorHeap, heapVivo());
+                amostras++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private static long heapVivo() {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a listagem projetada direto em {@link ConsultaResponseDTO} com o caminho antigo, que carregava
+ * entidades gerenciadas numa transação de escrita e copiava campo a campo.
+ */
+@SpringBootTest
+class ConsultaLeituraProjecaoTest {
+
+    private static final int CONSULTAS = 2000;
+    private static final int LIMITE = 500;
+    private static final int AQUECIMENTO = 50;
+    private static final int ITERACOES = 200;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long veterinarioId;
+
+    @BeforeEach
+    void semear() {
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Dra. Projeção', 'FEMININO', 'projecao', 'Clínica Geral', true, now(), now())
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT (g % 300) + 1, ?, ?::timestamp + (g * 30 || ' minutes')::interval,
+                       CASE WHEN g % 10 = 0 THEN 'EMERGENCIA' ELSE 'ROTINA' END, 'AGENDADA', now(), now()
+                FROM generate_series(1, ?) AS g
+                """, veterinarioId, LocalDate.now().plusYears(3).atStartOfDay(), CONSULTAS);
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+    }
+
+    @Test
+    void projecaoDevolveOsMesmosCamposDaConversaoDeEntidades() {
+        List<ConsultaResponseDTO> projetadas = listarProjetadas();
+        List<ConsultaResponseDTO> convertidas = listarEntidadesConvertidas();
+
+        assertThat(projetadas).hasSize(LIMITE);
+        assertThat(projetadas).usingRecursiveFieldByFieldElementComparator().isEqualTo(convertidas);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void projecaoAlocaMenosPorLinha() {
+        double porLinhaEntidades = bytesPorLinha(this::listarEntidadesConvertidas);
+        double porLinhaProjecao = bytesPorLinha(this::listarProjetadas);
+
+        System.out.printf("Entidades + conversão: %.0f bytes alocados por linha%n", porLinhaEntidades);
+        System.out.printf("Projeção em DTO:       %.0f bytes alocados por linha%n", porLinhaProjecao);
+
+        assertThat(porLinhaProjecao).isLessThan(porLinhaEntidades);
+    }
+
+    private List<ConsultaResponseDTO> listarProjetadas() {
+        return consultaService.listarConsultasPorVeterinario(veterinarioId, CursorPagina.INICIO, LIMITE).itens();
+    }
+
+    private List<ConsultaResponseDTO> listarEntidadesConvertidas() {
+        return new TransactionTemplate(transactionManager).execute(status -> entityManager
+                .createQuery("SELECT c FROM Consulta c WHERE c.veterinarioId = :veterinarioId "
+                        + "ORDER BY c.dataHora, c.id", Consulta.class)
+                .setParameter("veterinarioId", veterinarioId)
+                .setMaxResults(LIMITE)
+                .getResultStream()
+                .map(c -> new ConsultaResponseDTO(c.getId(), c.getAnimalId(), c.getVeterinarioId(),
+                        c.getDataHora(), c.getTipo(), c.getStatus(), c.getCreatedAt(), c.getUpdatedAt(),
+                        c.getVersion()))
+                .toList());
+    }
+
+    private static double bytesPorLinha(Supplier<List<ConsultaResponseDTO>> listagem) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            listagem.get();
+        }
+
+        long linhas = 0;
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERACOES; i++) {
+            linhas += listagem.get().size();
+        }
+        return (double) (threads.getCurrentThreadAllocatedBytes() - antes) / linhas;
+    }
+}
@@ -0,0 +1,154 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.LoteConsultasResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ModoLote;
+import com.vitalcajavet.msagendamentoconsultas.dto.ResultadoItemLoteDTO;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.horario-comercial.inicio=8",
+        "app.horario-comercial.fim=18"
+})
+class ConsultaLoteServiceTest {
+
+    @Autowired
+    private ConsultaLoteService consultaLoteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long veterinarioId;
+    private Long veterinarioInativoId;
+    private LocalDateTime dia;
+
+    @BeforeEach
+    void setUp() {
+        veterinarioId = criarVeterinario(true);
+        veterinarioInativoId = criarVeterinario(false);
+        dia = LocalDate.now().plusDays(20).atStartOfDay();
+        jdbcTemplate.update("INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at) "
+                + "VALUES (1, ?, ?, 'ROTINA', 'AGENDADA', now(), now())", veterinarioId, dia.withHour(9));
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id IN (?, ?)", veterinarioId, veterinarioInativoId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id IN (?, ?)", veterinarioId, veterinarioInativoId);
+    }
+
+    @Test
+    void melhorEsforcoGravaOsValidosEExplicaOsRejeitados() {
+        LoteConsultasResponseDTO resposta = consultaLoteService.agendarLote(new LoteConsultasRequestDTO(
+                ModoLote.MELHOR_ESFORCO, List.of(
+                        item(veterinarioId, dia.withHour(10)),
+                        item(veterinarioId, dia.withHour(9)),
+                        item(veterinarioId, dia.withHour(10)),
+                        item(veterinarioInativoId, dia.withHour(10)),
+                        item(-1L, dia.withHour(10)),
+                        item(veterinarioId, dia.withHour(22)),
+                        item(veterinarioId, dia.withHour(11)))));
+
+        assertThat(resposta.getResultados()).extracting(ResultadoItemLoteDTO::getStatus)
+                .containsExactly(201, 409, 409, 400, 404, 400, 201);
+        assertThat(resposta.getAgendadas()).isEqualTo(2);
+        assertThat(resposta.getRejeitadas()).isEqualTo(5);
+        assertThat(resposta.getResultados().get(0).getConsultaId()).isNotNull();
+        assertThat(consultasAtivas()).isEqualTo(3);
+    }
+
+    @Test
+    void melhorEsforcoComHorarioTomadoDuranteOLoteRejeitaSoOItemEmConflito() throws Exception {
+        List<ConsultaRequestDTO> itens = List.of(
+                item(veterinarioId, dia.withHour(10)),
+                item(veterinarioId, dia.withHour(11)),
+                item(veterinarioId, dia.withHour(12)));
+
+        // Outra instância insere 11h sem passar pela trava do veterinário e só faz commit depois que o lote
+        // já conferiu o banco: o flush do lote espera o índice único e falha.
+        CompletableFuture<LoteConsultasResponseDTO> lote = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at) "
+                    + "VALUES (2, ?, ?, 'ROTINA', 'AGENDADA', now(), now())", veterinarioId, dia.withHour(11));
+            CompletableFuture<LoteConsultasResponseDTO> emAndamento = CompletableFuture.supplyAsync(() ->
+                    consultaLoteService.agendarLote(new LoteConsultasRequestDTO(ModoLote.MELHOR_ESFORCO, itens)));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return emAndamento;
+        });
+        LoteConsultasResponseDTO resposta = lote.get(10, TimeUnit.SECONDS);
+
+        assertThat(resposta.getResultados()).extracting(ResultadoItemLoteDTO::getStatus)
+                .containsExactly(201, 409, 201);
+        assertThat(resposta.getResultados().get(1).getErro()).contains("durante o lote");
+        assertThat(resposta.getAgendadas()).isEqualTo(2);
+        assertThat(consultasAtivas()).isEqualTo(4);
+    }
+
+    @Test
+    void tudoOuNadaNaoGravaNadaQuandoUmItemFalha() {
+        LoteConsultasResponseDTO resposta = consultaLoteService.agendarLote(new LoteConsultasRequestDTO(
+                ModoLote.TUDO_OU_NADA, List.of(
+                        item(veterinarioId, dia.withHour(10)),
+                        item(veterinarioId, dia.withHour(9)),
+                        item(veterinarioId, dia.withHour(11)))));
+
+        assertThat(resposta.getResultados()).extracting(ResultadoItemLoteDTO::getStatus)
+                .containsExactly(424, 409, 424);
+        assertThat(resposta.getAgendadas()).isZero();
+        assertThat(consultasAtivas()).isEqualTo(1);
+    }
+
+    @Test
+    void tudoOuNadaGravaLoteValido() {
+        LoteConsultasResponseDTO resposta = consultaLoteService.agendarLote(new LoteConsultasRequestDTO(
+                ModoLote.TUDO_OU_NADA, List.of(
+                        item(veterinarioId, dia.withHour(10)),
+                        item(veterinarioId, dia.withHour(11)),
+                        item(veterinarioId, dia.withHour(12)))));
+
+        assertThat(resposta.getAgendadas()).isEqualTo(3);
+        assertThat(resposta.getResultados()).extracting(ResultadoItemLoteDTO::getConsultaId).doesNotContainNull();
+        assertThat(consultasAtivas()).isEqualTo(4);
+    }
+
+    private ConsultaRequestDTO item(Long veterinario, LocalDateTime dataHora) {
+        return new ConsultaRequestDTO(7L, veterinario, dataHora, TipoConsulta.ROTINA);
+    }
+
+    private int consultasAtivas() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM consultas WHERE veterinario_id = ? AND status <> 'CANCELADA'",
+                Integer.class, veterinarioId);
+    }
+
+    private Long criarVeterinario(boolean ativo) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Lote', 'MASCULINO', ?, 'Vacinação', ?, now(), now())
+                RETURNING id
+                """, Long.class, "lote-" + System.nanoTime(), ativo);
+    }
+}
@@ -0,0 +1,128 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.AgrupamentoTemporal;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemPeriodoDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.ContagemVeterinarioDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Semeia três semanas de 2092 (segunda, 7 de janeiro, em diante) com uma distribuição conhecida: o primeiro
+ * veterinário atende todo dia, o segundo só nos dias pares e o terceiro não atende.
+ */
+@SpringBootTest(properties = "app.estatisticas.cache-ttl=0s")
+@Transactional
+class EstatisticaConsultaServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDate.of(2092, 1, 7).atStartOfDay();
+    private static final LocalDateTime FIM = INICIO.plusWeeks(3);
+
+    @Autowired
+    private EstatisticaConsultaService estatisticaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long veterinarioDiario;
+    private long veterinarioDiasPares;
+
+    @BeforeEach
+    void semear() {
+        veterinarioDiario = inserirVeterinario("Dra. Diária");
+        veterinarioDiasPares = inserirVeterinario("Dr. Dias Pares");
+        inserirVeterinario("Dr. Sem Agenda");
+
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT d, ?, ?::timestamp + (d || ' days')::interval + interval '9 hours',
+                       CASE WHEN d % 3 = 0 THEN 'EMERGENCIA' ELSE 'ROTINA' END,
+                       CASE WHEN d % 7 = 0 THEN 'CANCELADA' ELSE 'AGENDADA' END,
+                       now(), now()
+                FROM generate_series(0, 20) AS d
+                """, veterinarioDiario, INICIO);
+        jdbcTemplate.update("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                SELECT d, ?, ?::timestamp + (d || ' days')::interval + interval '10 hours', 'ROTINA', 'REALIZADA',
+                       now(), now()
+                FROM generate_series(0, 20, 2) AS d
+                """, veterinarioDiasPares, INICIO);
+    }
+
+    @Test
+    void contaPorStatusIncluindoStatusSemConsultas() {
+        assertThat(estatisticaService.contarPorStatus(INICIO, FIM))
+                .extracting(ContagemDTO::getChave, ContagemDTO::getTotal)
+                .containsExactlyInAnyOrder(
+                        tuple("AGENDADA", 18L),
+                        tuple("CANCELADA", 3L),
+                        tuple("REALIZADA", 11L));
+        assertThat(estatisticaService.contarPorStatus(FIM, FIM.plusDays(1)))
+                .extracting(ContagemDTO::getTotal)
+                .containsOnly(0L);
+    }
+
+    @Test
+    void contaPorTipoFiltrandoStatus() {
+        assertThat(estatisticaService.contarPorTipo(INICIO, FIM, StatusConsulta.AGENDADA))
+                .extracting(ContagemDTO::getChave, ContagemDTO::getTotal)
+                .containsExactlyInAnyOrder(tuple("ROTINA", 12L), tuple("EMERGENCIA", 6L));
+    }
+
+    @Test
+    void rankingDeVeterinariosRespeitaLimite() {
+        List<ContagemVeterinarioDTO> ranking = estatisticaService.contarPorVeterinario(INICIO, FIM, null, 1);
+
+        assertThat(ranking)
+                .extracting(ContagemVeterinarioDTO::getVeterinarioId, ContagemVeterinarioDTO::getNomeVeterinario,
+                        ContagemVeterinarioDTO::getTotal)
+                .containsExactly(tuple(veterinarioDiario, "Dra. Diária", 21L));
+    }
+
+    @Test
+    void seriesSemanalEDiariaCobremOPeriodoInteiro() {
+        List<ContagemPeriodoDTO> semanas = estatisticaService.contarPorPeriodo(INICIO, FIM, null, AgrupamentoTemporal.SEMANA);
+        List<ContagemPeriodoDTO> dias = estatisticaService.contarPorPeriodo(INICIO, FIM.plusDays(2), null, AgrupamentoTemporal.DIA);
+
+        assertThat(semanas)
+                .extracting(ContagemPeriodoDTO::getInicio, ContagemPeriodoDTO::getTotal)
+                .containsExactly(
+                        tuple(LocalDate.of(2092, 1, 7), 11L),
+                        tuple(LocalDate.of(2092, 1, 14), 10L),
+                        tuple(LocalDate.of(2092, 1, 21), 11L));
+        assertThat(dias).hasSize(23);
+        assertThat(dias.get(0).getTotal()).isEqualTo(2);
+        assertThat(dias.get(1).getTotal()).isEqualTo(1);
+        assertThat(dias.get(22).getTotal()).isZero();
+    }
+
+    @Test
+    void periodoMaiorQueOMaximoEhRecusado() {
+        assertThatThrownBy(() -> estatisticaService.contarPorStatus(INICIO, INICIO.plusDays(400)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> estatisticaService.contarPorStatus(FIM, INICIO))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private long inserirVeterinario(String nome) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES (?, 'FEMININO', ?, 'Clínica Geral', true, now(), now())
+                RETURNING id
+                """, Long.class, nome, "estatisticas-" + nome);
+    }
+}
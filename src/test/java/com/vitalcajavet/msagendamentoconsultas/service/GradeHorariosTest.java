@@ -0,0 +1,118 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grade de um dia de expediente das 8h às 18h: 600 minutos, do índice 0 (8:00) ao 599 (17:59).
+ */
+class GradeHorariosTest {
+
+    private static final LocalDate DIA = LocalDate.of(2090, 1, 9);
+    private static final int MINUTOS = 600;
+
+    private final GradeHorarios grade = GradeHorarios.doDia(DIA, 8, 18);
+
+    @Test
+    void diaVazioTemTodosOsMinutosLivres() {
+        assertThat(grade.getOrigem()).isEqualTo(DIA.atTime(8, 0));
+        assertThat(grade.getTotalMinutos()).isEqualTo(MINUTOS);
+        assertThat(grade.livres().cardinality()).isEqualTo(MINUTOS);
+        assertThat(grade.ocupados().isEmpty()).isTrue();
+        assertThat(grade.horariosLivres()).first().isEqualTo(DIA.atTime(8, 0));
+        assertThat(grade.horariosLivres()).last().isEqualTo(DIA.atTime(17, 59));
+    }
+
+    @Test
+    void diaLotadoNaoTemHorarioLivre() {
+        for (int minuto = 0; minuto < MINUTOS; minuto++) {
+            grade.marcarOcupado(DIA.atTime(8, 0).plusMinutes(minuto));
+        }
+
+        assertThat(grade.livres().isEmpty()).isTrue();
+        assertThat(grade.ocupados().cardinality()).isEqualTo(MINUTOS);
+        assertThat(grade.horariosLivres()).isEmpty();
+    }
+
+    @Test
+    void consultasNoPrimeiroEUltimoMinutoDoExpediente() {
+        grade.marcarOcupado(DIA.atTime(8, 0));
+        grade.marcarOcupado(DIA.atTime(17, 59));
+
+        assertThat(grade.isLivre(DIA.atTime(8, 0))).isFalse();
+        assertThat(grade.isLivre(DIA.atTime(8, 1))).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(17, 58))).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(17, 59))).isFalse();
+        assertThat(grade.ocupados().stream().boxed().toList()).containsExactly(0, MINUTOS - 1);
+    }
+
+    @Test
+    void consultasForaDoExpedienteSaoIgnoradas() {
+        grade.marcarOcupado(DIA.atTime(18, 0));
+        grade.marcarOcupado(DIA.atTime(7, 59));
+        grade.marcarOcupado(DIA.plusDays(1).atTime(8, 0));
+
+        assertThat(grade.ocupados().isEmpty()).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(18, 0))).isFalse();
+        assertThat(grade.isLivre(DIA.atTime(7, 59))).isFalse();
+    }
+
+    @Test
+    void consultaForaDoMinutoCheioNaoOcupaNenhumHorario() {
+        grade.marcarOcupado(DIA.atTime(9, 30, 15));
+        grade.marcarOcupado(DIA.atTime(9, 31).withNano(1));
+
+        assertThat(grade.ocupados().isEmpty()).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(9, 30))).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(9, 31))).isTrue();
+        assertThat(grade.isLivre(DIA.atTime(9, 30, 15))).isFalse();
+    }
+
+    @Test
+    void corteComSegundosArredondaParaOMinutoSeguinte() {
+        grade.bloquearAntesDe(DIA.atTime(10, 15, 1));
+
+        assertThat(grade.isLivre(DIA.atTime(10, 15))).isFalse();
+        assertThat(grade.isLivre(DIA.atTime(10, 16))).isTrue();
+        assertThat(grade.horariosLivres()).first().isEqualTo(DIA.atTime(10, 16));
+        assertThat(grade.livres().cardinality()).isEqualTo(MINUTOS - 136);
+    }
+
+    @Test
+    void corteNoMinutoCheioMantemOProprioMinuto() {
+        grade.bloquearAntesDe(DIA.atTime(10, 15));
+
+        assertThat(grade.isLivre(DIA.atTime(10, 14))).isFalse();
+        assertThat(grade.isLivre(DIA.atTime(10, 15))).isTrue();
+    }
+
+    @Test
+    void corteNaoVoltaAtras() {
+        grade.bloquearAntesDe(DIA.atTime(12, 0));
+        grade.bloquearAntesDe(DIA.atTime(9, 0));
+
+        assertThat(grade.horariosLivres()).first().isEqualTo(DIA.atTime(12, 0));
+    }
+
+    @Test
+    void corteEmDataPassadaNaoBloqueiaNada() {
+        grade.bloquearAntesDe(DIA.minusDays(1).atTime(17, 0));
+
+        assertThat(grade.livres().cardinality()).isEqualTo(MINUTOS);
+    }
+
+    @Test
+    void diaQueJaPassouFicaTodoBloqueado() {
+        grade.marcarOcupado(DIA.atTime(9, 0));
+        grade.bloquearAntesDe(DIA.plusDays(1).atTime(8, 0));
+
+        assertThat(grade.livres().isEmpty()).isTrue();
+        assertThat(grade.horariosLivres()).isEmpty();
+        assertThat(grade.isLivre(DIA.atTime(17, 59))).isFalse();
+        assertThat(grade.ocupados().stream().boxed().toList()).containsExactly(60);
+    }
+}
@@ -0,0 +1,122 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.HorarioDisponivelRequestDTO;
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.TipoConsulta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "app.horario-comercial.inicio=8",
+        "app.horario-comercial.fim=18",
+        "app.horario-comercial.horas-minimas-cancelamento=2"
+})
+class MetricasConsultaTest {
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long veterinarioId;
+
+    @BeforeEach
+    void setUp() {
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Metricas', 'FEMININO', ?, 'Clinica geral', true, now(), now())
+                RETURNING id
+                """, Long.class, "metricas-" + System.nanoTime());
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+    }
+
+    @Test
+    void agendamentoMedeSucessoEContaConflitoPorMotivo() {
+        LocalDateTime horario = LocalDate.now().plusDays(5).atTime(10, 0);
+        long sucessos = timer("agendar", "sucesso");
+        long conflitos = timer("agendar", "conflito");
+        double horarioOcupado = contador("consultas.conflitos", "agendar", "horario_ocupado");
+
+        consultaService.agendarConsulta(requisicao(horario));
+        assertThatThrownBy(() -> consultaService.agendarConsulta(requisicao(horario)))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(timer("agendar", "sucesso")).isEqualTo(sucessos + 1);
+        assertThat(timer("agendar", "conflito")).isEqualTo(conflitos + 1);
+        assertThat(contador("consultas.conflitos", "agendar", "horario_ocupado")).isEqualTo(horarioOcupado + 1);
+    }
+
+    @Test
+    void rejeicoesSaoContadasPeloMotivoSemDadosDaRequisicao() {
+        double foraDoExpediente = contador("consultas.rejeicoes", "agendar", "fora_do_expediente");
+        double dataPassada = contador("consultas.rejeicoes", "horarios", "data_passada");
+
+        assertThatThrownBy(() -> consultaService.agendarConsulta(requisicao(LocalDate.now().plusDays(5).atTime(22, 0))))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> consultaService.calcularDisponibilidade(
+                new HorarioDisponivelRequestDTO(veterinarioId, LocalDate.now().minusDays(1))))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(contador("consultas.rejeicoes", "agendar", "fora_do_expediente")).isEqualTo(foraDoExpediente + 1);
+        assertThat(contador("consultas.rejeicoes", "horarios", "data_passada")).isEqualTo(dataPassada + 1);
+        assertThat(meterRegistry.find("consultas.rejeicoes").counters())
+                .allSatisfy(c -> assertThat(c.getId().getTags()).hasSize(2));
+    }
+
+    @Test
+    void cancelamentoEDisponibilidadeTemTimersComHistograma() {
+        Long id = consultaService.agendarConsulta(requisicao(LocalDate.now().plusDays(5).atTime(11, 0))).getId();
+
+        consultaService.cancelarConsulta(id);
+        consultaService.calcularDisponibilidade(new HorarioDisponivelRequestDTO(veterinarioId, LocalDate.now().plusDays(5)));
+
+        Timer cancelar = meterRegistry.get("consultas.operacao").tags("operacao", "cancelar", "resultado", "sucesso").timer();
+        Timer horarios = meterRegistry.get("consultas.operacao").tags("operacao", "horarios", "resultado", "sucesso").timer();
+        assertThat(cancelar.count()).isPositive();
+        assertThat(horarios.count()).isPositive();
+        assertThat(horarios.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    private long timer(String operacao, String resultado) {
+        Timer timer = meterRegistry.find("consultas.operacao").tags("operacao", operacao, "resultado", resultado).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double contador(String nome, String operacao, String motivo) {
+        Counter counter = meterRegistry.find(nome).tags("operacao", operacao, "motivo", motivo).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private ConsultaRequestDTO requisicao(LocalDateTime dataHora) {
+        ConsultaRequestDTO request = new ConsultaRequestDTO();
+        request.setAnimalId(1L);
+        request.setVeterinarioId(veterinarioId);
+        request.setDataHora(dataHora);
+        request.setTipo(TipoConsulta.ROTINA);
+        return request;
+    }
+}
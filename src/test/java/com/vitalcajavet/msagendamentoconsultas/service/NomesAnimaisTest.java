@@ -0,0 +1,88 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.client.AnimalServiceClient;
+import com.vitalcajavet.msagendamentoconsultas.config.AnimalServiceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serviço de animais simulado em memória e relógio controlado pelo teste: depois de uma falha nenhuma chamada
+ * sai até o fim da pausa, e ids que o serviço não conhece só voltam a ser pedidos quando o cache negativo expira.
+ */
+class NomesAnimaisTest {
+
+    private final AtomicLong agora = new AtomicLong();
+    private final List<Collection<Long>> chamadas = new ArrayList<>();
+    private boolean fora;
+    private NomesAnimais nomesAnimais;
+
+    @BeforeEach
+    void setUp() {
+        AnimalServiceProperties properties = new AnimalServiceProperties();
+        properties.setPausaAposFalha(Duration.ofSeconds(10));
+        properties.getCache().setTtlDesconhecidos(Duration.ofMinutes(1));
+
+        AnimalServiceClient servico = ids -> {
+            chamadas.add(List.copyOf(ids));
+            if (fora) {
+                throw new IllegalStateException("timeout");
+            }
+            return ids.stream()
+                    .filter(id -> id < 100)
+                    .collect(Collectors.toMap(id -> id, id -> "Rex " + id));
+        };
+        nomesAnimais = new NomesAnimais(servico, properties, new SimpleMeterRegistry(), agora::get);
+    }
+
+    @Test
+    void falhaPausaAsChamadasAteOFimDaPausa() {
+        fora = true;
+        assertThat(nomesAnimais.buscar(List.of(1L))).isEmpty();
+        fora = false;
+
+        avancar(Duration.ofSeconds(9));
+        assertThat(nomesAnimais.buscar(List.of(1L, 2L))).isEmpty();
+        assertThat(chamadas).hasSize(1);
+
+        avancar(Duration.ofSeconds(1));
+        assertThat(nomesAnimais.buscar(List.of(1L, 2L))).containsOnlyKeys(1L, 2L);
+        assertThat(chamadas).hasSize(2);
+    }
+
+    @Test
+    void nomesEmCacheContinuamDisponiveisDuranteAPausa() {
+        nomesAnimais.buscar(List.of(1L));
+        fora = true;
+        nomesAnimais.buscar(List.of(2L));
+
+        assertThat(nomesAnimais.buscar(List.of(1L, 2L))).isEqualTo(Map.of(1L, "Rex 1"));
+        assertThat(chamadas).hasSize(2);
+    }
+
+    @Test
+    void idDesconhecidoSoEPedidoDeNovoQuandoOCacheNegativoExpira() {
+        assertThat(nomesAnimais.buscar(List.of(1L, 500L))).containsOnlyKeys(1L);
+        assertThat(nomesAnimais.buscar(List.of(1L, 500L))).containsOnlyKeys(1L);
+        assertThat(chamadas).hasSize(1);
+
+        avancar(Duration.ofMinutes(1));
+        nomesAnimais.buscar(List.of(1L, 500L));
+        assertThat(chamadas).hasSize(2);
+        assertThat(chamadas.get(1)).containsExactly(500L);
+    }
+
+    private void avancar(Duration duracao) {
+        agora.addAndGet(duracao.toNanos());
+    }
+}
@@ -0,0 +1,158 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.client.AnimalServiceStub;
+import com.vitalcajavet.msagendamentoconsultas.dto.ConsultaResponseDTO;
+import com.vitalcajavet.msagendamentoconsultas.dto.CursorPagina;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uma página de 500 consultas de 5 veterinários e 500 animais diferentes, com o serviço de animais
+ * simulado por um servidor HTTP local.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "animal.service.timeout=300ms",
+        "animal.service.pausa-apos-falha=0s"
+})
+class NomesConsultasTest {
+
+    private static final int CONSULTAS = 500;
+    private static final int VETERINARIOS = 5;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2091, 1, 1, 0, 0);
+
+    private static final AnimalServiceStub animalService = iniciarStub();
+    private static long proximoAnimal = 7_000_000L;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private NomesConsultas nomesConsultas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> veterinarios = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void animalServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("animal.service.url", animalService::url);
+    }
+
+    @BeforeEach
+    void semear() {
+        long primeiroAnimal = proximoAnimal;
+        proximoAnimal += CONSULTAS;
+
+        for (int v = 0; v < VETERINARIOS; v++) {
+            Long veterinarioId = jdbcTemplate.queryForObject("""
+                    INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                    VALUES (?, 'MASCULINO', ?, 'Clínica Geral', true, now(), now())
+                    RETURNING id
+                    """, Long.class, "Dr. Nomes " + v, "nomes-" + v);
+            veterinarios.add(veterinarioId);
+            jdbcTemplate.update("""
+                    INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                    SELECT ? + g, ?, ?::timestamp + (g || ' hours')::interval, 'ROTINA', 'AGENDADA', now(), now()
+                    FROM generate_series(0, ?) AS g
+                    """, primeiroAnimal + (long) v * (CONSULTAS / VETERINARIOS), veterinarioId, INICIO,
+                    CONSULTAS / VETERINARIOS - 1);
+        }
+        animalService.zerarChamadas();
+        animalService.setLatencia(Duration.ZERO);
+    }
+
+    @AfterEach
+    void limpar() {
+        for (Long veterinarioId : veterinarios) {
+            jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", veterinarioId);
+            jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        }
+    }
+
+    @AfterAll
+    static void pararStub() {
+        animalService.close();
+    }
+
+    @Test
+    void paginaDe500LinhasFazUmaConsultaDeVeterinariosEUmaChamadaDeAnimais() {
+        List<ConsultaResponseDTO> consultas = listar();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        nomesConsultas.preencher(consultas);
+
+        assertThat(consultas).hasSize(CONSULTAS);
+        assertThat(estatisticas.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(animalService.chamadas()).isEqualTo(1);
+        assertThat(consultas).allSatisfy(c -> {
+            assertThat(c.getNomeVeterinario()).startsWith("Dr. Nomes ");
+            assertThat(c.getNomeAnimal()).isEqualTo("Rex " + c.getAnimalId());
+        });
+    }
+
+    @Test
+    void nomesDeAnimaisFicamEmCache() {
+        nomesConsultas.preencher(listar());
+        animalService.zerarChamadas();
+
+        List<ConsultaResponseDTO> consultas = listar();
+        nomesConsultas.preencher(consultas);
+
+        assertThat(animalService.chamadas()).isZero();
+        assertThat(consultas).allSatisfy(c -> assertThat(c.getNomeAnimal()).startsWith("Rex "));
+    }
+
+    @Test
+    void timeoutDoServicoDeAnimaisMantemNomesProvisorios() {
+        animalService.setLatencia(Duration.ofSeconds(2));
+        List<ConsultaResponseDTO> consultas = listar();
+
+        long inicio = System.nanoTime();
+        nomesConsultas.preencher(consultas);
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+        assertThat(duracao).isLessThan(Duration.ofSeconds(1));
+        assertThat(consultas).allSatisfy(c -> {
+            assertThat(c.getNomeAnimal()).isEqualTo("Animal #" + c.getAnimalId());
+            assertThat(c.getNomeVeterinario()).startsWith("Dr. Nomes ");
+        });
+    }
+
+    private List<ConsultaResponseDTO> listar() {
+        return consultaService.listarConsultasPorPeriodo(INICIO, INICIO.plusYears(1), CursorPagina.INICIO, CONSULTAS)
+                .itens();
+    }
+
+    private static AnimalServiceStub iniciarStub() {
+        try {
+            return new AnimalServiceStub();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
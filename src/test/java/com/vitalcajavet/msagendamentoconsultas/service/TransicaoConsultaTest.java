@@ -0,0 +1,258 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.exception.BadRequestException;
+import com.vitalcajavet.msagendamentoconsultas.exception.ConflictException;
+import com.vitalcajavet.msagendamentoconsultas.exception.NotFoundException;
+import com.vitalcajavet.msagendamentoconsultas.model.Consulta;
+import com.vitalcajavet.msagendamentoconsultas.model.enums.StatusConsulta;
+import com.vitalcajavet.msagendamentoconsultas.repository.ConsultaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.horario-comercial.horas-minimas-cancelamento=2")
+class TransicaoConsultaTest {
+
+    private static final long VETERINARIO = 987_654_321L;
+    private static final int REPETICOES = 2000;
+
+    @Autowired
+    private ConsultaService consultaService;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM consultas WHERE veterinario_id = ?", VETERINARIO);
+    }
+
+    @Test
+    void cancelaConsultaAgendadaDentroDoPrazo() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusDays(1));
+
+        Consulta consulta = consultaService.cancelarConsulta(id);
+
+        assertThat(consulta.getStatus()).isEqualTo(StatusConsulta.CANCELADA);
+        assertThat(statusNoBanco(id)).isEqualTo("CANCELADA");
+    }
+
+    @Test
+    void recusaCancelamentoSemAntecedenciaMinima() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusHours(1));
+
+        assertThatThrownBy(() -> consultaService.cancelarConsulta(id))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("2 horas");
+        assertThat(statusNoBanco(id)).isEqualTo("AGENDADA");
+    }
+
+    @Test
+    void recusaCancelarConsultaJaCancelada() {
+        Long id = criar(StatusConsulta.CANCELADA, LocalDateTime.now().plusDays(1));
+
+        assertThatThrownBy(() -> consultaService.cancelarConsulta(id))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("já está cancelada");
+    }
+
+    @Test
+    void recusaCancelarConsultaRealizada() {
+        Long id = criar(StatusConsulta.REALIZADA, LocalDateTime.now().minusDays(1));
+
+        assertThatThrownBy(() -> consultaService.cancelarConsulta(id))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("já realizada");
+    }
+
+    @Test
+    void cancelamentoQueEsperaUmaRealizacaoConcorrenteRecebeConflito() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusDays(1));
+
+        CompletableFuture<Consulta> cancelamento = comLinhaTravada(
+                "UPDATE consultas SET status = 'REALIZADA', version = version + 1 WHERE id = ?", id,
+                () -> consultaService.cancelarConsulta(id));
+
+        assertThatThrownBy(() -> aguardar(cancelamento))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("já realizada");
+        assertThat(statusNoBanco(id)).isEqualTo("REALIZADA");
+    }
+
+    @Test
+    void cancelamentoQueEsperaUmaRemarcacaoConcorrenteNaoAcusaFaltaDeAntecedencia() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusDays(1));
+
+        CompletableFuture<Consulta> cancelamento = comLinhaTravada(
+                "UPDATE consultas SET data_hora = data_hora + interval '1 day', version = version + 1 WHERE id = ?", id,
+                () -> consultaService.cancelarConsulta(id));
+
+        // A remarcação não impede o cancelamento; o UPDATE reavaliado aplica sobre a linha nova e a devolve.
+        Consulta cancelada = aguardar(cancelamento);
+        assertThat(cancelada.getStatus()).isEqualTo(StatusConsulta.CANCELADA);
+        assertThat(cancelada.getDataHora()).isAfter(LocalDateTime.now().plusDays(1).plusHours(12));
+    }
+
+    @Test
+    void realizacaoQueEsperaUmCancelamentoConcorrenteRecebeConflito() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().minusHours(1));
+
+        CompletableFuture<Consulta> realizacao = comLinhaTravada(
+                "UPDATE consultas SET status = 'CANCELADA', version = version + 1 WHERE id = ?", id,
+                () -> consultaService.atualizarStatus(id, StatusConsulta.REALIZADA));
+
+        assertThatThrownBy(() -> aguardar(realizacao))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("cancelada");
+    }
+
+    @Test
+    void cancelarConsultaInexistenteRetornaNaoEncontrada() {
+        assertThatThrownBy(() -> consultaService.cancelarConsulta(-1L))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void marcaConsultaAgendadaComoRealizada() {
+        Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().minusHours(1));
+
+        Consulta consulta = consultaService.atualizarStatus(id, StatusConsulta.REALIZADA);
+
+        assertThat(consulta.getStatus()).isEqualTo(StatusConsulta.REALIZADA);
+        assertThat(statusNoBanco(id)).isEqualTo("REALIZADA");
+    }
+
+    @Test
+    void recusaRealizarConsultaCancelada() {
+        Long id = criar(StatusConsulta.CANCELADA, LocalDateTime.now().minusHours(1));
+
+        assertThatThrownBy(() -> consultaService.atualizarStatus(id, StatusConsulta.REALIZADA))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("cancelada");
+        assertThat(statusNoBanco(id)).isEqualTo("CANCELADA");
+    }
+
+    @Test
+    void recusaRealizarConsultaJaRealizada() {
+        Long id = criar(StatusConsulta.REALIZADA, LocalDateTime.now().minusHours(1));
+
+        assertThatThrownBy(() -> consultaService.atualizarStatus(id, StatusConsulta.REALIZADA))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("já está realizada");
+    }
+
+    @Test
+    void recusaVoltarParaAgendadaOuCancelarPeloStatus() {
+        Long id = criar(StatusConsulta.REALIZADA, LocalDateTime.now().minusHours(1));
+
+        assertThatThrownBy(() -> consultaService.atualizarStatus(id, StatusConsulta.AGENDADA))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> consultaService.atualizarStatus(id, StatusConsulta.CANCELADA))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("endpoint específico");
+        assertThat(statusNoBanco(id)).isEqualTo("REALIZADA");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void comparaLatenciaDoCancelamento() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        long[] carregarESalvar = new long[REPETICOES];
+        long[] comandoUnico = new long[REPETICOES];
+
+        for (int i = 0; i < REPETICOES; i++) {
+            Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusDays(1).plusMinutes(i));
+            long inicio = System.nanoTime();
+            transacao.executeWithoutResult(status -> {
+                Consulta consulta = consultaRepository.findById(id).orElseThrow();
+                jdbcTemplate.queryForObject("SELECT data_hora > now() + interval '2 hours' FROM consultas WHERE id = ?",
+                        Boolean.class, id);
+                consulta.setStatus(StatusConsulta.CANCELADA);
+                consultaRepository.save(consulta);
+            });
+            carregarESalvar[i] = System.nanoTime() - inicio;
+        }
+
+        for (int i = 0; i < REPETICOES; i++) {
+            Long id = criar(StatusConsulta.AGENDADA, LocalDateTime.now().plusDays(2).plusMinutes(i));
+            long inicio = System.nanoTime();
+            consultaService.cancelarConsulta(id);
+            comandoUnico[i] = System.nanoTime() - inicio;
+        }
+
+        System.out.printf("Cancelamento carregar+validar+salvar: p50=%.3fms p99=%.3fms%n",
+                percentil(carregarESalvar, 0.50), percentil(carregarESalvar, 0.99));
+        System.out.printf("Cancelamento com UPDATE condicional:  p50=%.3fms p99=%.3fms%n",
+                percentil(comandoUnico, 0.50), percentil(comandoUnico, 0.99));
+
+        assertThat(percentil(comandoUnico, 0.50)).isLessThan(percentil(carregarESalvar, 0.50));
+    }
+
+    private Long criar(StatusConsulta status, LocalDateTime dataHora) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO consultas (animal_id, veterinario_id, data_hora, tipo, status, created_at, updated_at)
+                VALUES (1, ?, ?, 'ROTINA', ?, now(), now())
+                RETURNING id
+                """, Long.class, VETERINARIO, dataHora, status.name());
+    }
+
+    /**
+     * Executa {@code sql} em uma transação que segura o lock da linha enquanto {@code operacao} começa em outra
+     * thread, e só então faz commit: a operação lê o snapshot anterior e espera o lock no UPDATE.
+     */
+    private <T> CompletableFuture<T> comLinhaTravada(String sql, Long id, Supplier<T> operacao) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        return transacao.execute(status -> {
+            jdbcTemplate.update(sql, id);
+            CompletableFuture<T> concorrente = CompletableFuture.supplyAsync(operacao);
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(concorrente).isNotDone();
+            return concorrente;
+        });
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String statusNoBanco(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM consultas WHERE id = ?", String.class, id);
+    }
+
+    private static double percentil(long[] amostras, double percentil) {
+        long[] ordenadas = amostras.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1] / 1_000_000.0;
+    }
+}
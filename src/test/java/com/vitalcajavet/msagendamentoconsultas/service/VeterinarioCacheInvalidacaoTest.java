@@ -0,0 +1,67 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.config.VeterinarioCacheProperties;
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A lista de ativos começa a ser carregada antes do commit que desativa um veterinário e só termina depois
+ * da invalidação. O valor carregado antes do commit não pode ficar no cache.
+ */
+class VeterinarioCacheInvalidacaoTest {
+
+    @Test
+    void invalidacaoDuranteACargaDaListaDescartaOValorCarregado() throws Exception {
+        VeterinarioCache cache = new VeterinarioCache(new VeterinarioCacheProperties(), new SimpleMeterRegistry());
+        Veterinario antesDoCommit = veterinario(1L);
+        Veterinario depoisDoCommit = veterinario(2L);
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+
+        CompletableFuture<List<Veterinario>> leitura = CompletableFuture.supplyAsync(() -> cache.ativos(() -> {
+            carregando.countDown();
+            aguardar(liberarCarga);
+            return List.of(antesDoCommit);
+        }));
+        assertThat(carregando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.runAsync(() -> {
+            dormir(100);
+            liberarCarga.countDown();
+        });
+        cache.invalidar(1L);
+
+        assertThat(leitura.get(5, TimeUnit.SECONDS)).containsExactly(antesDoCommit);
+        assertThat(cache.ativos(() -> List.of(depoisDoCommit))).containsExactly(depoisDoCommit);
+    }
+
+    private static Veterinario veterinario(Long id) {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setId(id);
+        return veterinario;
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
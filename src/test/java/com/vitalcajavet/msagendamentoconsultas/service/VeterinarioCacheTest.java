@@ -0,0 +1,103 @@
+package com.vitalcajavet.msagendamentoconsultas.service;
+
+import com.vitalcajavet.msagendamentoconsultas.model.Veterinario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VeterinarioCacheTest {
+
+    @Autowired
+    private VeterinarioService veterinarioService;
+
+    @Autowired
+    private VeterinarioCache veterinarioCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long veterinarioId;
+
+    @BeforeEach
+    void setUp() {
+        veterinarioId = jdbcTemplate.queryForObject("""
+                INSERT INTO veterinarios (nome, sexo, cpf, especialidade, ativo, created_at, updated_at)
+                VALUES ('Cache', 'MASCULINO', ?, 'Clinica geral', true, now(), now())
+                RETURNING id
+                """, Long.class, "cache-" + System.nanoTime());
+        veterinarioCache.invalidar(veterinarioId);
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM veterinarios WHERE id = ?", veterinarioId);
+        veterinarioCache.invalidar(veterinarioId);
+    }
+
+    @Test
+    void segundaLeituraVemDoCache() {
+        long acertosAntes = veterinarioCache.statsPorId().hitCount();
+
+        veterinarioService.findById(veterinarioId);
+        veterinarioService.findById(veterinarioId);
+
+        assertThat(veterinarioCache.statsPorId().hitCount() - acertosAntes).isEqualTo(1);
+    }
+
+    @Test
+    void desativarNaoDeixaAtivoVelhoNoCache() {
+        long ativosAntes = veterinarioService.countAtivos();
+        assertThat(veterinarioService.findById(veterinarioId)).get().extracting(Veterinario::getAtivo).isEqualTo(true);
+        assertThat(veterinarioService.findAllAtivos()).extracting(Veterinario::getId).contains(veterinarioId);
+
+        veterinarioService.desativar(veterinarioId);
+
+        assertThat(veterinarioService.findById(veterinarioId)).get().extracting(Veterinario::getAtivo).isEqualTo(false);
+        assertThat(veterinarioService.findAllAtivos()).extracting(Veterinario::getId).doesNotContain(veterinarioId);
+        assertThat(veterinarioService.countAtivos()).isEqualTo(ativosAntes - 1);
+    }
+
+    @Test
+    void leiturasConcorrentesComDesativarNaoVoltamAoValorAntigo() throws Exception {
+        ExecutorService leitores = Executors.newFixedThreadPool(8);
+        AtomicBoolean lendo = new AtomicBoolean(true);
+        Future<?>[] tarefas = new Future<?>[8];
+        for (int i = 0; i < tarefas.length; i++) {
+            tarefas[i] = leitores.submit(() -> {
+                while (lendo.get()) {
+                    veterinarioService.findById(veterinarioId);
+                    veterinarioService.findAllAtivos();
+                }
+            });
+        }
+
+        Thread.sleep(100);
+        veterinarioService.desativar(veterinarioId);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(veterinarioService.findById(veterinarioId)).get()
+                    .extracting(Veterinario::getAtivo).isEqualTo(false);
+            assertThat(veterinarioService.findAllAtivos()).extracting(Veterinario::getId)
+                    .doesNotContain(veterinarioId);
+        }
+
+        lendo.set(false);
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        leitores.shutdown();
+        assertThat(leitores.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+}